@@ -0,0 +1,117 @@
+package lll69.benchmarks;
+
+import jscl.math.Expression;
+import jscl.math.Generic;
+import jscl.math.Variable;
+import jscl.math.polynomial.Basis;
+import jscl.math.polynomial.Monomial;
+import jscl.text.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groebner basis computation ({@link Basis#compute(Generic[], Variable[], jscl.math.polynomial.Ordering, int, int)})
+ * with different algorithms
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BasisBenchmark {
+
+    // Basis.compute() inverts GM_SETTING and SUGAR flags, so they are passed in order to switch off the default ones
+    private static final int BUCHBERGER = Basis.BUCHBERGER | Basis.GM_SETTING | Basis.SUGAR;
+    private static final int GM = Basis.BUCHBERGER | Basis.SUGAR;
+    private static final int SUGAR = Basis.BUCHBERGER | Basis.GM_SETTING;
+    private static final int F4 = Basis.F4;
+    private static final int BLOCK = Basis.BLOCK;
+
+    @Param({"buchberger", "gm", "sugar", "f4", "block"})
+    public String algorithm;
+
+    @Param({"cyclic3", "katsura3", "twisted"})
+    public String system;
+
+    private Generic[] polynomials;
+    private Variable[] variables;
+    private int flags;
+
+    @Setup
+    public void setUp() throws ParseException {
+        switch (system) {
+            case "cyclic3":
+                polynomials = parse("x+y+z", "x*y+y*z+z*x", "x*y*z-1");
+                variables = variables("x", "y", "z");
+                break;
+            case "katsura3":
+                polynomials = parse("a+2*b+2*c+2*d-1", "a^2+2*b^2+2*c^2+2*d^2-a", "2*a*b+2*b*c+2*c*d-b", "b^2+2*a*c+2*b*d-c");
+                variables = variables("a", "b", "c", "d");
+                break;
+            case "twisted":
+                // twisted cubic
+                polynomials = parse("x*z-y^2", "x^3-y*z", "x^2*y-z^2");
+                variables = variables("x", "y", "z");
+                break;
+            default:
+                throw new IllegalArgumentException(system);
+        }
+        switch (algorithm) {
+            case "buchberger":
+                flags = BUCHBERGER;
+                break;
+            case "gm":
+                flags = GM;
+                break;
+            case "sugar":
+                flags = SUGAR;
+                break;
+            case "f4":
+                flags = F4;
+                break;
+            case "block":
+                flags = BLOCK;
+                break;
+            default:
+                throw new IllegalArgumentException(algorithm);
+        }
+    }
+
+    @Benchmark
+    public Basis compute() {
+        return Basis.compute(polynomials, variables, Monomial.degreeReverseLexicographic, 0, flags);
+    }
+
+    @Benchmark
+    public Basis computeLexicographic() {
+        return Basis.compute(polynomials, variables, Monomial.lexicographic, 0, flags);
+    }
+
+    private static Generic[] parse(String... expressions) throws ParseException {
+        final Generic[] result = new Generic[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            result[i] = Expression.valueOf(expressions[i]).expand();
+        }
+        return result;
+    }
+
+    private static Variable[] variables(String... names) throws ParseException {
+        final Variable[] result = new Variable[names.length];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = Expression.valueOf(names[i]).variableValue();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package lll69.benchmarks;
+
+import jscl.JsclMathEngine;
+import jscl.text.ParseCache;
+import jscl.text.SubexpressionCache;
+
+import javax.annotation.Nonnull;
+
+final class Caches {
+
+    private Caches() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Clears all caches of the engine so that the next calculation is done from scratch
+     */
+    static void clear(@Nonnull JsclMathEngine engine) {
+        ParseCache.getInstance().clear();
+        engine.getResultCache().clear();
+        final SubexpressionCache subexpressions = engine.getSubexpressionCache();
+        if (subexpressions != null) {
+            subexpressions.clear();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package lll69.benchmarks;
+
+import jscl.JsclMathEngine;
+import jscl.text.ParseException;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expressions from corpus.txt grouped by sections
+ */
+final class Corpus {
+
+    @Nonnull
+    private static final Map<String, List<String>> sections = load();
+
+    private Corpus() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @return expressions of the section in jscl text
+     */
+    @Nonnull
+    static List<String> get(@Nonnull String section) {
+        final List<String> result = sections.get(section);
+        if (result == null) {
+            throw new IllegalArgumentException("No section " + section + " in the corpus");
+        }
+        return result;
+    }
+
+    /**
+     * Throws if the expressions can't be calculated: otherwise benchmarks would measure exception handling
+     *
+     * @param numeric true if the expressions are also evaluated numerically
+     */
+    static void check(@Nonnull List<String> expressions, @Nonnull JsclMathEngine engine, boolean numeric) {
+        for (String expression : expressions) {
+            try {
+                if (numeric) {
+                    engine.evaluate(expression);
+                }
+                engine.simplify(expression);
+                engine.elementary(expression);
+            } catch (ParseException | RuntimeException e) {
+                throw new IllegalStateException("Can't calculate " + expression, e);
+            }
+        }
+    }
+
+    @Nonnull
+    private static Map<String, List<String>> load() {
+        final Map<String, List<String>> result = new LinkedHashMap<>();
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("corpus.txt is not found");
+            }
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> section = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith("@")) {
+                    section = new ArrayList<>();
+                    result.put(line.substring(1), section);
+                } else if (section != null) {
+                    section.add(line);
+                } else {
+                    throw new IllegalStateException("Expression outside of a section: " + line);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, List<String>> entry : result.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package lll69.benchmarks;
+
+import jscl.math.Expression;
+import jscl.math.Generic;
+import jscl.math.JsclInteger;
+import jscl.math.Matrix;
+import jscl.math.function.Constant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Matrix#determinant()} of matrices with symbolic and integer elements
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeterminantBenchmark {
+
+    @Param({"3", "4", "5"})
+    public int size;
+
+    private Matrix symbolic;
+    private Matrix integer;
+
+    @Setup
+    public void setUp() {
+        final Generic[][] symbolicElements = new Generic[size][size];
+        final Generic[][] integerElements = new Generic[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                symbolicElements[i][j] = Expression.valueOf(new Constant("a" + i + j));
+                integerElements[i][j] = JsclInteger.valueOf((i * size + j) * (i * size + j) % 7 - 3);
+            }
+        }
+        symbolic = new Matrix(symbolicElements);
+        integer = new Matrix(integerElements);
+    }
+
+    @Benchmark
+    public Generic symbolic() {
+        return symbolic.determinant();
+    }
+
+    @Benchmark
+    public Generic integer() {
+        return integer.determinant();
+    }
+}
@@ -0,0 +1,97 @@
+package lll69.benchmarks;
+
+import jscl.JsclMathEngine;
+import jscl.text.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full calculation of the corpus by {@link JsclMathEngine}. All caches are cleared before each expression unless
+ * the benchmark name ends with "Cached".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Numeric {
+
+        // symbolic expressions can't be evaluated numerically
+        @Param({"arithmetic", "functions", "matrices"})
+        public String section;
+
+        JsclMathEngine engine;
+        List<String> expressions;
+
+        @Setup
+        public void setUp() {
+            engine = JsclMathEngine.getInstance();
+            expressions = Corpus.get(section);
+            Corpus.check(expressions, engine, true);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class All {
+
+        @Param({"arithmetic", "functions", "symbolic", "matrices"})
+        public String section;
+
+        JsclMathEngine engine;
+        List<String> expressions;
+
+        @Setup
+        public void setUp() {
+            engine = JsclMathEngine.getInstance();
+            expressions = Corpus.get(section);
+            Corpus.check(expressions, engine, false);
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Numeric state, Blackhole blackhole) throws ParseException {
+        for (String expression : state.expressions) {
+            Caches.clear(state.engine);
+            blackhole.consume(state.engine.evaluate(expression));
+        }
+    }
+
+    @Benchmark
+    public void evaluateCached(Numeric state, Blackhole blackhole) throws ParseException {
+        for (String expression : state.expressions) {
+            blackhole.consume(state.engine.evaluate(expression));
+        }
+    }
+
+    @Benchmark
+    public void simplify(All state, Blackhole blackhole) throws ParseException {
+        for (String expression : state.expressions) {
+            Caches.clear(state.engine);
+            blackhole.consume(state.engine.simplify(expression));
+        }
+    }
+
+    @Benchmark
+    public void elementary(All state, Blackhole blackhole) throws ParseException {
+        for (String expression : state.expressions) {
+            Caches.clear(state.engine);
+            blackhole.consume(state.engine.elementary(expression));
+        }
+    }
+}
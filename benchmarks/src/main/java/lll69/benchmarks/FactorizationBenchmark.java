@@ -0,0 +1,46 @@
+package lll69.benchmarks;
+
+import jscl.math.Expression;
+import jscl.math.Factorization;
+import jscl.math.Generic;
+import jscl.text.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Factorization#compute(Generic)} of expanded polynomials
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FactorizationBenchmark {
+
+    @Param({"x^4-1", "x^6-y^6", "(x+1)^5*(x-2)^3", "(x^2+x+1)*(x^3-2*x+5)", "(x+y)^4*(x-y)^2", "(a*x+b)*(c*x+d)*(x+1)"})
+    public String polynomial;
+
+    private Generic generic;
+
+    @Setup
+    public void setUp() throws ParseException {
+        generic = Expression.valueOf(polynomial).expand();
+    }
+
+    @Benchmark
+    public Generic compute() {
+        return Factorization.compute(generic);
+    }
+}
@@ -0,0 +1,78 @@
+package lll69.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.solovyev.common.NumberFormatter;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NumberFormatter#format(double, int)} and {@link NumberFormatter#format(BigInteger, int)} of typical results
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    private static final double[] doubles = {0, 1, -7, 0.5, 1.0 / 3, Math.PI, Math.E * 1e10, 6.02214076e23,
+            1.602176634e-19, 0.1 + 0.2, 123456789.123, Double.MAX_VALUE, Double.MIN_VALUE};
+
+    private static final BigInteger[] integers = {BigInteger.ZERO, BigInteger.valueOf(42), BigInteger.valueOf(-1000000),
+            new BigInteger("3628800"), new BigInteger("12345678901234567891"),
+            new BigInteger("9332621544394415268169923885626670049071596826438162146859296389521759999322991560894146397615651828625369792082722375825118521091686400000000000000000000000")};
+
+    @Param({"10", "16", "2"})
+    public int radix;
+
+    @Param({"simple", "scientific", "engineering"})
+    public String format;
+
+    private NumberFormatter formatter;
+
+    @Setup
+    public void setUp() {
+        formatter = new NumberFormatter();
+        formatter.setGroupingSeparator(' ');
+        switch (format) {
+            case "simple":
+                formatter.useSimpleFormat();
+                break;
+            case "scientific":
+                formatter.useScientificFormat(NumberFormatter.DEFAULT_MAGNITUDE);
+                break;
+            case "engineering":
+                formatter.useEngineeringFormat(NumberFormatter.DEFAULT_MAGNITUDE);
+                break;
+            default:
+                throw new IllegalArgumentException(format);
+        }
+    }
+
+    @Benchmark
+    public void formatDouble(Blackhole blackhole) {
+        for (double value : doubles) {
+            blackhole.consume(formatter.format(value, radix).toString());
+        }
+    }
+
+    @Benchmark
+    public void formatBigInteger(Blackhole blackhole) {
+        for (BigInteger value : integers) {
+            blackhole.consume(formatter.format(value, radix).toString());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package lll69.benchmarks;
+
+import jscl.JsclMathEngine;
+import jscl.math.Expression;
+import jscl.text.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.solovyev.android.calculator.ToJsclTextProcessor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the corpus: {@link Expression#valueOf(String)} and {@link ToJsclTextProcessor#process(String)}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"arithmetic", "functions", "symbolic", "matrices"})
+    public String section;
+
+    private JsclMathEngine engine;
+    private ToJsclTextProcessor processor;
+    private List<String> expressions;
+
+    @Setup
+    public void setUp() {
+        engine = JsclMathEngine.getInstance();
+        processor = ToJsclTextProcessor.getInstance();
+        expressions = Corpus.get(section);
+    }
+
+    @Benchmark
+    public void valueOf(Blackhole blackhole) throws ParseException {
+        for (String expression : expressions) {
+            Caches.clear(engine);
+            blackhole.consume(Expression.valueOf(expression));
+        }
+    }
+
+    @Benchmark
+    public void valueOfCached(Blackhole blackhole) throws ParseException {
+        for (String expression : expressions) {
+            blackhole.consume(Expression.valueOf(expression));
+        }
+    }
+
+    @Benchmark
+    public void process(Blackhole blackhole) throws org.solovyev.android.calculator.ParseException {
+        for (String expression : expressions) {
+            blackhole.consume(processor.process(expression, engine));
+        }
+    }
+}
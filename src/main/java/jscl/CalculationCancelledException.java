@@ -0,0 +1,16 @@
+package jscl;
+
+import jscl.text.ParseInterruptedException;
+
+/**
+ * Thrown when calculation exceeds the time or the number of steps allowed by {@link JsclMathEngine#setTimeout(int)}
+ * and {@link JsclMathEngine#setMaxSteps(int)}. Engine stays usable after this exception.
+ */
+public class CalculationCancelledException extends ParseInterruptedException {
+
+    private static final long serialVersionUID = 6510742291851L;
+
+    public CalculationCancelledException(String message) {
+        super(message);
+    }
+}
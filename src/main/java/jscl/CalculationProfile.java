@@ -0,0 +1,121 @@
+package jscl;
+
+import jscl.math.Generic;
+import org.teavm.jso.JSExport;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Time spent in each phase of a calculation and number of {@link Generic}s created by it.
+ * <p/>
+ * A profile is recorded only while an engine with profiling turned on (see {@link JsclMathEngine#setProfiling(boolean)})
+ * is current for the calling thread, so calculations of different threads are recorded in the profiles of their own
+ * engines. As long as no thread records a profile each checkpoint costs one read of a plain static field, so the
+ * checkpoint in the constructor of {@link Generic} is almost free.
+ */
+public final class CalculationProfile {
+
+    public enum Phase {
+        preprocessing,
+        parsing,
+        expanding,
+        simplifying,
+        numeric,
+        elementary,
+        formatting
+    }
+
+    // number of engine scopes recording a profile now in all threads
+    @GuardedBy("CalculationProfile.class")
+    private static int recordings;
+
+    // same as recordings != 0, not volatile: another thread may see the change late and miss a few checkpoints of
+    // its first calculation, but the profile itself is always looked up in the scope of the current thread
+    private static boolean recording;
+
+    @Nonnull
+    private final long[] times = new long[Phase.values().length];
+    private long generics;
+
+    static synchronized void startRecording() {
+        recordings++;
+        recording = true;
+    }
+
+    static synchronized void stopRecording() {
+        recordings--;
+        recording = recordings != 0;
+    }
+
+    @Nullable
+    private static CalculationProfile recording() {
+        return recording ? JsclMathEngine.getRecordingProfile() : null;
+    }
+
+    /**
+     * @return start time of a phase to be passed to {@link #stop(Phase, long)}
+     */
+    public static long start() {
+        return recording() != null ? System.nanoTime() : 0;
+    }
+
+    public static void stop(@Nonnull Phase phase, long start) {
+        if (start != 0) {
+            final CalculationProfile profile = recording();
+            if (profile != null) {
+                profile.times[phase.ordinal()] += System.nanoTime() - start;
+            }
+        }
+    }
+
+    public static void onGenericCreated() {
+        final CalculationProfile profile = recording();
+        if (profile != null) {
+            profile.generics++;
+        }
+    }
+
+    /**
+     * @return time spent in the phase in milliseconds
+     */
+    public double getTime(@Nonnull Phase phase) {
+        return times[phase.ordinal()] / 1e6;
+    }
+
+    /**
+     * Same as {@link #getTime(Phase)}, <var>phase</var> is a name of {@link Phase}
+     */
+    @JSExport
+    public double getTime(@Nonnull String phase) {
+        return getTime(Phase.valueOf(phase));
+    }
+
+    @JSExport
+    public double getTotalTime() {
+        long result = 0;
+        for (long time : times) {
+            result += time;
+        }
+        return result / 1e6;
+    }
+
+    /**
+     * @return number of {@link Generic} objects created during the calculation
+     */
+    @JSExport
+    public double getCreatedGenerics() {
+        return generics;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("CalculationProfile{");
+        for (Phase phase : Phase.values()) {
+            result.append(phase.name()).append('=').append(getTime(phase)).append("ms, ");
+        }
+        result.append("generics=").append(generics).append('}');
+        return result.toString();
+    }
+}
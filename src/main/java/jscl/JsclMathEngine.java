@@ -5,6 +5,7 @@ import static midpcalc.Real.NumberFormat.FSE_NONE;
 import static midpcalc.Real.NumberFormat.FSE_SCI;
 
 import org.solovyev.common.NumberFormatter;
+import org.solovyev.common.math.AbstractMathRegistry;
 import org.solovyev.common.math.MathRegistry;
 import org.solovyev.common.msg.MessageRegistry;
 import org.solovyev.common.msg.Messages;
@@ -15,8 +16,10 @@ import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import jscl.math.CompiledExpression;
 import jscl.math.Expression;
 import jscl.math.Generic;
+import jscl.math.MemoCache;
 import jscl.math.function.Constants;
 import jscl.math.function.ConstantsRegistry;
 import jscl.math.function.Function;
@@ -25,9 +28,10 @@ import jscl.math.function.IConstant;
 import jscl.math.function.PostfixFunctionsRegistry;
 import jscl.math.operator.Operator;
 import jscl.math.operator.Percent;
-import jscl.math.operator.Rand;
 import jscl.math.operator.matrix.OperatorsRegistry;
+import jscl.text.ParseCache;
 import jscl.text.ParseException;
+import jscl.text.SubexpressionCache;
 import org.teavm.jso.JSExport;
 
 public class JsclMathEngine extends org.solovyev.android.calculator.Engine implements MathEngine {
@@ -37,6 +41,12 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
     public static final char GROUPING_SEPARATOR_DEFAULT = ' ';
     @Nonnull
     private static JsclMathEngine instance = new JsclMathEngine();
+    // engine which evaluates an expression on the current thread, see getInstance()
+    @Nonnull
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+    // results don't depend on the engine's identity, only on its settings (which are part of the key)
+    @Nonnull
+    private static final ResultCache resultCache = new ResultCache();
     @Nonnull
     private final ThreadLocal<NumberFormatter> numberFormatter = new ThreadLocal<NumberFormatter>() {
         @Override
@@ -53,57 +63,272 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
     private NumeralBase numeralBase = DEFAULT_NUMERAL_BASE;
     @Nonnull
     private MessageRegistry messageRegistry = Messages.synchronizedMessageRegistry(new FixedCapacityListMessageRegistry(10));
+    // limits of one calculation, 0 means no limit
+    private int timeout;
+    private int maxSteps;
+    // not null if incremental parsing is on
+    @Nullable
+    private SubexpressionCache subexpressions;
+    // not null if profiling is on
+    @Nullable
+    private CalculationProfile profile;
+    // not null if memoization is on
+    @Nullable
+    private MemoCache memos;
 
     public JsclMathEngine() {
     }
 
+    /**
+     * Engine settings (angle units, numeral base, etc) are read by the math objects through this method.
+     * Each engine makes itself current for the duration of its operations (see {@link #enter()}), so several engines
+     * with different settings can be used from different threads at the same time.
+     *
+     * @return engine which is current for the calling thread or default engine if there is none
+     */
     @Nonnull
     public static JsclMathEngine getInstance() {
+        final Scope scope = current.get();
+        return scope != null ? scope.engine : instance;
+    }
+
+    @Nonnull
+    public static JsclMathEngine getDefault() {
         return instance;
     }
 
+    /**
+     * Makes this engine current for the calling thread until returned scope is closed. Should be used when
+     * {@link Generic}s are manipulated directly (i.e. not through the methods of this engine):
+     * <pre>
+     * final JsclMathEngine.Scope scope = engine.enter();
+     * try {
+     *     return generic.numeric();
+     * } finally {
+     *     scope.close();
+     * }
+     * </pre>
+     *
+     * @return scope to be closed
+     */
+    @Nonnull
+    public Scope enter() {
+        final Scope previous = current.get();
+        // nested scopes belong to the same calculation and share its limits
+        final Budget budget = previous != null ? previous.budget : Budget.create(timeout, maxSteps);
+        final Scope scope = new Scope(this, previous, budget, profile);
+        if (profile != null) {
+            CalculationProfile.startRecording();
+        }
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return profile recorded by the current thread, null if there is none
+     */
+    @Nullable
+    static CalculationProfile getRecordingProfile() {
+        final Scope scope = current.get();
+        return scope != null ? scope.profile : null;
+    }
+
+    /**
+     * Counts one step of the current calculation.
+     *
+     * @throws CalculationCancelledException if calculation has run out of time or steps
+     */
+    public static void checkCancelled() {
+        final Scope scope = current.get();
+        if (scope != null && scope.budget != null) {
+            scope.budget.step();
+        }
+    }
+
+    /**
+     * @return new engine with the same settings as this one. Registries are shared by all engines
+     */
+    @Nonnull
+    public JsclMathEngine copy() {
+        final JsclMathEngine copy = new JsclMathEngine();
+        copy.groupingSeparator = groupingSeparator;
+        copy.notation = notation;
+        copy.precision = precision;
+        copy.angleUnits = angleUnits;
+        copy.numeralBase = numeralBase;
+        copy.messageRegistry = messageRegistry;
+        copy.timeout = timeout;
+        copy.maxSteps = maxSteps;
+        copy.setIncrementalParsing(isIncrementalParsing());
+        copy.setProfiling(isProfiling());
+        copy.setMemoization(isMemoization());
+        return copy;
+    }
+
     @Nonnull
     @JSExport
     public String evaluate(@Nonnull String expression) throws ParseException {
-        return evaluateGeneric(expression).toString();
+        final Scope scope = enter();
+        try {
+            return format(evaluateGeneric(expression));
+        } finally {
+            scope.close();
+        }
     }
 
     @Nonnull
     @JSExport
     public String simplify(@Nonnull String expression) throws ParseException {
-        return simplifyGeneric(expression).toString();
+        final Scope scope = enter();
+        try {
+            return format(simplifyGeneric(expression));
+        } finally {
+            scope.close();
+        }
     }
 
     @Nonnull
     @JSExport
     public String elementary(@Nonnull String expression) throws ParseException {
-        return elementaryGeneric(expression).toString();
+        final Scope scope = enter();
+        try {
+            return format(elementaryGeneric(expression));
+        } finally {
+            scope.close();
+        }
     }
 
     @Nonnull
     @JSExport
     public Generic evaluateGeneric(@Nonnull String expression) throws ParseException {
-        if (expression.contains(Percent.NAME) || expression.contains(Rand.NAME)) {
-            return Expression.valueOf(expression).numeric();
-        } else {
-            return Expression.valueOf(expression).expand().numeric();
+        final Generic cached = resultCache.get(ResultCache.Operation.evaluate, expression, this);
+        if (cached != null) {
+            return cached;
+        }
+        final int generation = AbstractMathRegistry.getGeneration();
+
+        final Scope scope = enter();
+        try {
+            final Expression parsed = parse(expression);
+            final boolean timeDependent = parsed.isTimeDependent();
+            final Generic result;
+            if (timeDependent || expression.contains(Percent.NAME)) {
+                result = numeric(parsed);
+            } else {
+                result = numeric(expand(parsed));
+            }
+            if (!timeDependent) {
+                resultCache.put(ResultCache.Operation.evaluate, expression, this, generation, result);
+            }
+            return result;
+        } finally {
+            scope.close();
         }
     }
 
     @Nonnull
     @JSExport
     public Generic simplifyGeneric(@Nonnull String expression) throws ParseException {
-        if (expression.contains(Percent.NAME) || expression.contains(Rand.NAME)) {
-            return Expression.valueOf(expression);
-        } else {
-            return Expression.valueOf(expression).expand().simplify();
+        final Generic cached = resultCache.get(ResultCache.Operation.simplify, expression, this);
+        if (cached != null) {
+            return cached;
+        }
+        final int generation = AbstractMathRegistry.getGeneration();
+
+        final Scope scope = enter();
+        try {
+            final Expression parsed = parse(expression);
+            final boolean timeDependent = parsed.isTimeDependent();
+            final Generic result;
+            if (timeDependent || expression.contains(Percent.NAME)) {
+                result = parsed;
+            } else {
+                result = simplify(expand(parsed));
+            }
+            if (!timeDependent) {
+                resultCache.put(ResultCache.Operation.simplify, expression, this, generation, result);
+            }
+            return result;
+        } finally {
+            scope.close();
         }
     }
 
     @Nonnull
     @JSExport
     public Generic elementaryGeneric(@Nonnull String expression) throws ParseException {
-        return Expression.valueOf(expression).elementary();
+        final Scope scope = enter();
+        try {
+            final Expression parsed = parse(expression);
+            final long start = CalculationProfile.start();
+            final Generic result = parsed.elementary();
+            CalculationProfile.stop(CalculationProfile.Phase.elementary, start);
+            return result;
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Nonnull
+    private Expression parse(@Nonnull String expression) throws ParseException {
+        final long start = CalculationProfile.start();
+        final Expression result = Expression.valueOf(expression, this, subexpressions);
+        CalculationProfile.stop(CalculationProfile.Phase.parsing, start);
+        return result;
+    }
+
+    @Nonnull
+    private static Generic expand(@Nonnull Generic generic) {
+        final long start = CalculationProfile.start();
+        final Generic result = generic.expand();
+        CalculationProfile.stop(CalculationProfile.Phase.expanding, start);
+        return result;
+    }
+
+    @Nonnull
+    private static Generic simplify(@Nonnull Generic generic) {
+        final long start = CalculationProfile.start();
+        final Generic result = generic.simplify();
+        CalculationProfile.stop(CalculationProfile.Phase.simplifying, start);
+        return result;
+    }
+
+    @Nonnull
+    private static Generic numeric(@Nonnull Generic generic) {
+        final long start = CalculationProfile.start();
+        final Generic result = generic.numeric();
+        CalculationProfile.stop(CalculationProfile.Phase.numeric, start);
+        return result;
+    }
+
+    /**
+     * @return text representation of the result of a calculation done by this engine
+     */
+    @Nonnull
+    public String format(@Nonnull Generic result) {
+        final Scope scope = enter();
+        try {
+            final long start = CalculationProfile.start();
+            final String text = result.toString();
+            CalculationProfile.stop(CalculationProfile.Phase.formatting, start);
+            return text;
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Nonnull
+    public CompiledExpression compile(@Nonnull String expression, @Nonnull List<String> variables) throws ParseException {
+        final Scope scope = enter();
+        try {
+            final Expression parsed = parse(expression);
+            final boolean expand = !(parsed.isTimeDependent() || expression.contains(Percent.NAME));
+            final Generic generic = expand ? parsed.expand() : parsed;
+            // settings are captured at compile time
+            return CompiledExpression.compile(generic, expand, variables, copy());
+        } finally {
+            scope.close();
+        }
     }
 
     @Nonnull
@@ -152,6 +377,21 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
         return ConstantsRegistry.lazyInstance();
     }
 
+    @Nonnull
+    public ParseCache getParseCache() {
+        return ParseCache.getInstance();
+    }
+
+    @Nullable
+    public SubexpressionCache getSubexpressionCache() {
+        return subexpressions;
+    }
+
+    @Nonnull
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
     @Nonnull
     public String format(double value) {
         return format(value, numeralBase);
@@ -309,6 +549,11 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
         return nb == NumeralBase.dec ? groupingSeparator : ' ';
     }
 
+    @JSExport
+    public int getPrecision() {
+        return precision;
+    }
+
     @JSExport
     public void setPrecision(int precision) {
         this.precision = precision;
@@ -322,6 +567,108 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
         this.notation = notation;
     }
 
+    @JSExport
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param timeout maximum duration of one calculation in milliseconds, 0 for no limit
+     */
+    @JSExport
+    public void setTimeout(int timeout) {
+        this.timeout = timeout;
+    }
+
+    @JSExport
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * @param maxSteps maximum number of steps (multiplications, reductions, etc) in one calculation, 0 for no limit
+     */
+    @JSExport
+    public void setMaxSteps(int maxSteps) {
+        this.maxSteps = maxSteps;
+    }
+
+    @JSExport
+    public boolean isIncrementalParsing() {
+        return subexpressions != null;
+    }
+
+    /**
+     * @param incrementalParsing true if bracketed subexpressions should be reused between parses. Makes sense if
+     *                           similar expressions are evaluated one after another (e.g. as the user types)
+     */
+    @JSExport
+    public void setIncrementalParsing(boolean incrementalParsing) {
+        if (incrementalParsing != isIncrementalParsing()) {
+            this.subexpressions = incrementalParsing ? new SubexpressionCache() : null;
+        }
+    }
+
+    @JSExport
+    public boolean isMemoization() {
+        return memos != null;
+    }
+
+    /**
+     * @param memoization true if results of expanding, numeric and elementary calculations of expressions should be
+     *                    kept by this engine and reused if the same expressions are calculated again (e.g.
+     *                    subexpressions reused by incremental parsing, see {@link #setIncrementalParsing(boolean)})
+     */
+    @JSExport
+    public void setMemoization(boolean memoization) {
+        if (memoization != isMemoization()) {
+            this.memos = memoization ? new MemoCache() : null;
+        }
+    }
+
+    /**
+     * @return results of the expressions calculated by this engine, null if memoization is off
+     */
+    @Nullable
+    public MemoCache getMemoCache() {
+        return memos;
+    }
+
+    @JSExport
+    public boolean isProfiling() {
+        return profile != null;
+    }
+
+    /**
+     * @param profiling true if time of each phase of calculations and number of created objects should be recorded,
+     *                  see {@link #getProfile()}
+     */
+    @JSExport
+    public void setProfiling(boolean profiling) {
+        if (profiling != isProfiling()) {
+            this.profile = profiling ? new CalculationProfile() : null;
+        }
+    }
+
+    /**
+     * Starts a new profile: everything calculated by this engine from now on is recorded in it.
+     */
+    @JSExport
+    public void startProfile() {
+        if (isProfiling()) {
+            this.profile = new CalculationProfile();
+        }
+    }
+
+    /**
+     * @return profile of the calculations done since the last call of {@link #startProfile()}, null if profiling is off
+     */
+    @Nullable
+    @JSExport
+    public CalculationProfile getProfile() {
+        return profile;
+    }
+
     @JSExport
     public char getGroupingSeparator() {
         return this.groupingSeparator;
@@ -331,4 +678,65 @@ public class JsclMathEngine extends org.solovyev.android.calculator.Engine imple
     public void setGroupingSeparator(char separator) {
         this.groupingSeparator = separator;
     }
+
+    public static final class Scope implements AutoCloseable {
+
+        @Nonnull
+        private final JsclMathEngine engine;
+        @Nullable
+        private final Scope previous;
+        @Nullable
+        private final Budget budget;
+        // profile of the engine at the moment the scope was entered, null if profiling is off
+        @Nullable
+        private final CalculationProfile profile;
+
+        private Scope(@Nonnull JsclMathEngine engine, @Nullable Scope previous, @Nullable Budget budget, @Nullable CalculationProfile profile) {
+            this.engine = engine;
+            this.previous = previous;
+            this.budget = budget;
+            this.profile = profile;
+        }
+
+        @Override
+        public void close() {
+            current.set(previous);
+            if (profile != null) {
+                CalculationProfile.stopRecording();
+            }
+        }
+    }
+
+    private static final class Budget {
+
+        // reading the clock is much more expensive than a step
+        private static final int CLOCK_PERIOD = 64;
+
+        private final long deadline;
+        private final int maxSteps;
+        private int steps;
+
+        private Budget(long deadline, int maxSteps) {
+            this.deadline = deadline;
+            this.maxSteps = maxSteps;
+        }
+
+        @Nullable
+        static Budget create(int timeout, int maxSteps) {
+            if (timeout <= 0 && maxSteps <= 0) {
+                return null;
+            }
+            return new Budget(timeout > 0 ? System.currentTimeMillis() + timeout : 0, maxSteps);
+        }
+
+        void step() {
+            steps++;
+            if (maxSteps > 0 && steps > maxSteps) {
+                throw new CalculationCancelledException("Calculation exceeded " + maxSteps + " steps");
+            }
+            if (deadline > 0 && steps % CLOCK_PERIOD == 0 && System.currentTimeMillis() > deadline) {
+                throw new CalculationCancelledException("Calculation timed out");
+            }
+        }
+    }
 }
@@ -1,10 +1,12 @@
 package jscl;
 
+import jscl.math.CompiledExpression;
 import jscl.math.Generic;
 import jscl.text.ParseException;
 import org.solovyev.common.msg.MessageRegistry;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 
 public interface MathEngine extends MathContext {
 
@@ -26,6 +28,17 @@ public interface MathEngine extends MathContext {
     @Nonnull
     Generic elementaryGeneric(@Nonnull String expression) throws ParseException;
 
+    /**
+     * Parses <var>expression</var> once for repeated numeric evaluation.
+     *
+     * @param expression expression to be compiled
+     * @param variables  names of the constants which will be bound to the arguments of {@link CompiledExpression#evaluate(double...)}
+     * @return compiled expression
+     * @throws ParseException if expression can't be parsed
+     */
+    @Nonnull
+    CompiledExpression compile(@Nonnull String expression, @Nonnull List<String> variables) throws ParseException;
+
     @Nonnull
     MessageRegistry getMessageRegistry();
 
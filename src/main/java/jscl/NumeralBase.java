@@ -157,6 +157,23 @@ public enum NumeralBase {
     @Nonnull
     public abstract Set<Character> getAcceptableCharacters();
 
+    /**
+     * Same as a lookup in {@link #getAcceptableCharacters()} but without boxing of <var>c</var>
+     *
+     * @return value of digit <var>c</var> or -1 if <var>c</var> is not a digit in this numeral base
+     */
+    public int digit(char c) {
+        final int result;
+        if (c >= '0' && c <= '9') {
+            result = c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            result = c - 'A' + 10;
+        } else {
+            return -1;
+        }
+        return result < radix ? result : -1;
+    }
+
     public int getGroupingSize() {
         return groupingSize;
     }
@@ -0,0 +1,106 @@
+package jscl;
+
+import jscl.math.Generic;
+import org.solovyev.common.collections.LruCache;
+import org.solovyev.common.math.AbstractMathRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Bounded cache of the results of {@link JsclMathEngine#evaluateGeneric(String)} and
+ * {@link JsclMathEngine#simplifyGeneric(String)}.
+ * <p/>
+ * Results are keyed by the expression and by every setting which might affect them: angle units, numeral base,
+ * precision and the registry generation (see {@link AbstractMathRegistry#getGeneration()}). Time dependent results
+ * (see {@link Generic#isTimeDependent()}) must not be put into the cache.
+ */
+public final class ResultCache {
+
+    private static final int MAX_SIZE = 50;
+
+    @Nonnull
+    private final LruCache<Key, Generic> results = new LruCache<>(MAX_SIZE);
+
+    enum Operation {
+        evaluate,
+        simplify
+    }
+
+    @Nullable
+    Generic get(@Nonnull Operation operation, @Nonnull String expression, @Nonnull JsclMathEngine engine) {
+        return results.get(new Key(operation, expression, engine, AbstractMathRegistry.getGeneration()));
+    }
+
+    void put(@Nonnull Operation operation, @Nonnull String expression, @Nonnull JsclMathEngine engine, int generation, @Nonnull Generic result) {
+        results.put(new Key(operation, expression, engine, generation), result);
+    }
+
+    public long getHits() {
+        return results.getHits();
+    }
+
+    public long getMisses() {
+        return results.getMisses();
+    }
+
+    public int getSize() {
+        return results.getSize();
+    }
+
+    public void clear() {
+        results.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCache{size=" + getSize() + ", hits=" + getHits() + ", misses=" + getMisses() + "}";
+    }
+
+    private static final class Key {
+        @Nonnull
+        private final Operation operation;
+        @Nonnull
+        private final String expression;
+        @Nonnull
+        private final AngleUnit angleUnits;
+        @Nonnull
+        private final NumeralBase numeralBase;
+        private final int precision;
+        private final int generation;
+
+        private Key(@Nonnull Operation operation, @Nonnull String expression, @Nonnull JsclMathEngine engine, int generation) {
+            this.operation = operation;
+            this.expression = expression;
+            this.angleUnits = engine.getAngleUnits();
+            this.numeralBase = engine.getNumeralBase();
+            this.precision = engine.getPrecision();
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key that = (Key) o;
+            return precision == that.precision
+                    && generation == that.generation
+                    && operation == that.operation
+                    && angleUnits == that.angleUnits
+                    && numeralBase == that.numeralBase
+                    && expression.equals(that.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = operation.hashCode();
+            result = 31 * result + expression.hashCode();
+            result = 31 * result + angleUnits.hashCode();
+            result = 31 * result + numeralBase.hashCode();
+            result = 31 * result + precision;
+            result = 31 * result + generation;
+            return result;
+        }
+    }
+}
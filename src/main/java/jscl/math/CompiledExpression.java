@@ -0,0 +1,482 @@
+package jscl.math;
+
+import jscl.AngleUnit;
+import jscl.JsclMathEngine;
+import jscl.math.function.Abs;
+import jscl.math.function.Conjugate;
+import jscl.math.function.Constant;
+import jscl.math.function.Cubic;
+import jscl.math.function.CustomFunction;
+import jscl.math.function.Deg;
+import jscl.math.function.Exp;
+import jscl.math.function.Fraction;
+import jscl.math.function.Lg;
+import jscl.math.function.Ln;
+import jscl.math.function.Pow;
+import jscl.math.function.Sgn;
+import jscl.math.function.Sqrt;
+import jscl.math.function.hyperbolic.Cosh;
+import jscl.math.function.hyperbolic.Coth;
+import jscl.math.function.hyperbolic.Sinh;
+import jscl.math.function.hyperbolic.Tanh;
+import jscl.math.function.trigonometric.Acos;
+import jscl.math.function.trigonometric.Acot;
+import jscl.math.function.trigonometric.Asin;
+import jscl.math.function.trigonometric.Atan;
+import jscl.math.function.trigonometric.Cos;
+import jscl.math.function.trigonometric.Cot;
+import jscl.math.function.trigonometric.Sin;
+import jscl.math.function.trigonometric.Tan;
+import jscl.math.numeric.Numeric;
+import jscl.math.numeric.Real;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Expression prepared for repeated numeric evaluation (plotting, tables): the parsed tree is translated once into
+ * a tree of double-valued nodes and then evaluated for different values of the bound variables without creating
+ * any {@link Generic}.
+ * <p/>
+ * Expressions containing something the compiler doesn't understand (complex constants, operators, vectors, etc)
+ * and evaluations producing NaN (where the symbolic engine might return a complex number) are delegated to the
+ * usual symbolic path.
+ */
+public final class CompiledExpression {
+
+    @Nonnull
+    private final Generic generic;
+
+    private final boolean expand;
+
+    @Nonnull
+    private final List<String> variables;
+
+    @Nonnull
+    private final Constant[] constants;
+
+    // snapshot of the engine settings made at compile time
+    @Nonnull
+    private final JsclMathEngine engine;
+
+    @Nonnull
+    private final AngleUnit angleUnits;
+
+    // null if expression can only be evaluated symbolically
+    private final Node root;
+
+    private CompiledExpression(@Nonnull Generic generic, boolean expand, @Nonnull List<String> variables, @Nonnull JsclMathEngine engine) {
+        this.generic = generic;
+        this.expand = expand;
+        this.variables = Collections.unmodifiableList(variables);
+        this.engine = engine;
+        this.angleUnits = engine.getAngleUnits();
+        this.constants = new Constant[variables.size()];
+        for (int i = 0; i < constants.length; i++) {
+            constants[i] = new Constant(variables.get(i));
+        }
+        this.root = new Compiler().compile(generic);
+    }
+
+    /**
+     * @param generic    parsed expression
+     * @param expand     true if expression should be expanded before numeric evaluation on the symbolic path
+     * @param variables  names of the constants which are bound to the arguments of {@link #evaluate(double...)}
+     * @param engine     engine which settings are used in evaluation, must not be changed afterwards
+     * @return compiled expression
+     */
+    @Nonnull
+    public static CompiledExpression compile(@Nonnull Generic generic, boolean expand, @Nonnull List<String> variables, @Nonnull JsclMathEngine engine) {
+        return new CompiledExpression(generic, expand, variables, engine);
+    }
+
+    @Nonnull
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public int indexOf(@Nonnull String variable) {
+        return variables.indexOf(variable);
+    }
+
+    /**
+     * @return true if expression is evaluated without falling back to the symbolic engine
+     */
+    public boolean isCompiled() {
+        return root != null;
+    }
+
+    public double evaluate(@Nonnull double... values) {
+        if (values.length != constants.length) {
+            throw new IllegalArgumentException("Expected " + constants.length + " values, got " + values.length);
+        }
+
+        if (root != null) {
+            final double result = root.value(values);
+            if (!Double.isNaN(result)) {
+                return result;
+            }
+        }
+
+        return evaluateSymbolically(values);
+    }
+
+    private double evaluateSymbolically(@Nonnull double[] values) {
+        final JsclMathEngine.Scope scope = engine.enter();
+        try {
+            Generic result = generic;
+            for (int i = 0; i < constants.length; i++) {
+                result = result.substitute(constants[i], Expression.valueOf(values[i]));
+            }
+            if (expand) {
+                result = result.expand();
+            }
+            return result.numeric().doubleValue();
+        } catch (NotDoubleException e) {
+            return Double.NaN;
+        } catch (ArithmeticException e) {
+            return Double.NaN;
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Compiles expressions to nodes, each method returns null if its argument can't be compiled
+     */
+    private final class Compiler {
+
+        @Nullable
+        private Node compile(@Nonnull Generic generic) {
+            if (generic instanceof JsclInteger || generic instanceof Rational) {
+                return new Value(generic.doubleValue());
+            } else if (generic instanceof NumericWrapper) {
+                return compile(((NumericWrapper) generic).content());
+            } else if (generic instanceof Expression) {
+                return compile((Expression) generic);
+            }
+            return null;
+        }
+
+        @Nullable
+        private Node compile(@Nonnull Numeric numeric) {
+            if (numeric instanceof Real) {
+                return new Value(numeric.doubleValue());
+            }
+            return null;
+        }
+
+        @Nullable
+        private Node compile(@Nonnull Expression expression) {
+            final int size = expression.size();
+            final Node[] terms = new Node[size];
+            for (int i = 0; i < size; i++) {
+                final Literal literal = expression.literal(i);
+                final Node[] factors = new Node[literal.size()];
+                final int[] powers = new int[literal.size()];
+                for (int j = 0; j < factors.length; j++) {
+                    factors[j] = compile(literal.getVariable(j));
+                    if (factors[j] == null) {
+                        return null;
+                    }
+                    powers[j] = literal.getPower(j);
+                }
+                terms[i] = new Term(expression.coef(i).doubleValue(), factors, powers);
+            }
+            return size == 1 ? terms[0] : new Sum(terms);
+        }
+
+        @Nullable
+        private Node compile(@Nonnull Variable variable) {
+            if (variable instanceof GenericVariable) {
+                return compile(((GenericVariable) variable).content);
+            } else if (variable instanceof Constant) {
+                return compile((Constant) variable);
+            } else if (variable instanceof CustomFunction) {
+                return compile(((CustomFunction) variable).selfExpand());
+            } else if (variable instanceof jscl.math.function.Function) {
+                return compile((jscl.math.function.Function) variable);
+            }
+            return null;
+        }
+
+        @Nullable
+        private Node compile(@Nonnull Constant constant) {
+            if (constant.prime() == 0 && constant.subscript().length == 0) {
+                final int index = variables.indexOf(constant.getName());
+                if (index >= 0) {
+                    return new Argument(index);
+                }
+            }
+            try {
+                return compile(new NumericWrapper(constant).content());
+            } catch (ArithmeticException e) {
+                // undefined constant: let the symbolic path report it
+                return null;
+            }
+        }
+
+        @Nullable
+        private Node compile(@Nonnull jscl.math.function.Function function) {
+            final Generic[] parameters = function.getParameters();
+            final Node[] args = new Node[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                args[i] = compile(parameters[i]);
+                if (args[i] == null) {
+                    return null;
+                }
+            }
+
+            // Inverse is a Fraction with numerator 1
+            if (function instanceof Fraction) {
+                return new Binary(BinaryOp.divide, args[0], args[1]);
+            } else if (function instanceof Pow) {
+                return new Binary(BinaryOp.pow, args[0], args[1]);
+            }
+
+            final UnaryOp op = unaryOp(function);
+            if (op == null || args.length != 1) {
+                return null;
+            }
+            return new Unary(op, args[0], angleUnits);
+        }
+
+        private UnaryOp unaryOp(@Nonnull jscl.math.function.Function function) {
+            if (function instanceof Sin) return UnaryOp.sin;
+            if (function instanceof Cos) return UnaryOp.cos;
+            if (function instanceof Tan) return UnaryOp.tan;
+            if (function instanceof Cot) return UnaryOp.cot;
+            if (function instanceof Asin) return UnaryOp.asin;
+            if (function instanceof Acos) return UnaryOp.acos;
+            if (function instanceof Atan) return UnaryOp.atan;
+            if (function instanceof Acot) return UnaryOp.acot;
+            if (function instanceof Sinh) return UnaryOp.sinh;
+            if (function instanceof Cosh) return UnaryOp.cosh;
+            if (function instanceof Tanh) return UnaryOp.tanh;
+            if (function instanceof Coth) return UnaryOp.coth;
+            if (function instanceof Ln) return UnaryOp.ln;
+            if (function instanceof Lg) return UnaryOp.lg;
+            if (function instanceof Exp) return UnaryOp.exp;
+            if (function instanceof Sqrt) return UnaryOp.sqrt;
+            if (function instanceof Cubic) return UnaryOp.cubic;
+            if (function instanceof Abs) return UnaryOp.abs;
+            if (function instanceof Sgn) return UnaryOp.sgn;
+            if (function instanceof Deg) return UnaryOp.deg;
+            if (function instanceof Conjugate) return UnaryOp.conjugate;
+            return null;
+        }
+    }
+
+    /*
+     * **********************************************************************
+     *
+     *                           NODES
+     *
+     * **********************************************************************
+     */
+
+    private static abstract class Node {
+        abstract double value(@Nonnull double[] values);
+    }
+
+    private static final class Value extends Node {
+        private final double value;
+
+        Value(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            return value;
+        }
+    }
+
+    private static final class Argument extends Node {
+        private final int index;
+
+        Argument(int index) {
+            this.index = index;
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            return values[index];
+        }
+    }
+
+    private static final class Sum extends Node {
+        @Nonnull
+        private final Node[] terms;
+
+        Sum(@Nonnull Node[] terms) {
+            this.terms = terms;
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            double result = 0;
+            for (Node term : terms) {
+                result += term.value(values);
+            }
+            return result;
+        }
+    }
+
+    private static final class Term extends Node {
+        private final double coefficient;
+        @Nonnull
+        private final Node[] factors;
+        @Nonnull
+        private final int[] powers;
+
+        Term(double coefficient, @Nonnull Node[] factors, @Nonnull int[] powers) {
+            this.coefficient = coefficient;
+            this.factors = factors;
+            this.powers = powers;
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            double result = coefficient;
+            for (int i = 0; i < factors.length; i++) {
+                final double factor = factors[i].value(values);
+                for (int j = 0; j < powers[i]; j++) {
+                    result *= factor;
+                }
+            }
+            return result;
+        }
+    }
+
+    private enum BinaryOp {
+        divide,
+        pow
+    }
+
+    private static final class Binary extends Node {
+        @Nonnull
+        private final BinaryOp op;
+        @Nonnull
+        private final Node left;
+        @Nonnull
+        private final Node right;
+
+        Binary(@Nonnull BinaryOp op, @Nonnull Node left, @Nonnull Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            final double l = left.value(values);
+            final double r = right.value(values);
+            switch (op) {
+                case divide:
+                    return l / r;
+                case pow:
+                    // negative base is handled by complex arithmetic on the symbolic path
+                    return l < 0 ? Double.NaN : Math.pow(l, r);
+            }
+            throw new AssertionError();
+        }
+    }
+
+    private enum UnaryOp {
+        sin, cos, tan, cot,
+        asin, acos, atan, acot,
+        sinh, cosh, tanh, coth,
+        ln, lg, exp, sqrt, cubic,
+        abs, sgn, deg, conjugate
+    }
+
+    private static final class Unary extends Node {
+        @Nonnull
+        private final UnaryOp op;
+        @Nonnull
+        private final Node argument;
+        @Nonnull
+        private final AngleUnit angleUnits;
+
+        Unary(@Nonnull UnaryOp op, @Nonnull Node argument, @Nonnull AngleUnit angleUnits) {
+            this.op = op;
+            this.argument = argument;
+            this.angleUnits = angleUnits;
+        }
+
+        private double toRad(double value) {
+            return angleUnits.transform(AngleUnit.rad, value);
+        }
+
+        private double fromRad(double value) {
+            return AngleUnit.rad.transform(angleUnits, value);
+        }
+
+        @Override
+        double value(@Nonnull double[] values) {
+            final double x = argument.value(values);
+            switch (op) {
+                case sin:
+                    return Math.sin(toRad(x));
+                case cos:
+                    return Math.cos(toRad(x));
+                case tan:
+                    return Real.tan(toRad(x));
+                case cot:
+                    return 1. / Real.tan(toRad(x));
+                case asin:
+                    return fromRad(Math.asin(x));
+                case acos:
+                    return fromRad(Math.acos(x));
+                case atan:
+                    return fromRad(Math.atan(x));
+                case acot:
+                    return fromRad(Math.PI / 2 - Math.atan(x));
+                case sinh: {
+                    final double e = Math.exp(toRad(x));
+                    return -(1 - e * e) / (2 * e);
+                }
+                case cosh: {
+                    final double e = Math.exp(toRad(x));
+                    return (1 + e * e) / (2 * e);
+                }
+                case tanh: {
+                    final double e = Math.exp(toRad(x));
+                    return -(1 - e * e) / (1 + e * e);
+                }
+                case coth: {
+                    final double e = Math.exp(toRad(x));
+                    return -(1 + e * e) / (1 - e * e);
+                }
+                case ln:
+                    return x < 0 ? Double.NaN : Math.log(x);
+                case lg:
+                    return x < 0 ? Double.NaN : Math.log10(x);
+                case exp:
+                    return Math.exp(x);
+                case sqrt:
+                    return x < 0 ? Double.NaN : Math.sqrt(x);
+                case cubic:
+                    return x < 0 ? -Math.pow(-x, 1. / 3) : Math.pow(x, 1. / 3);
+                case abs:
+                    return Math.abs(x);
+                case sgn:
+                    return x / Math.abs(x);
+                case deg:
+                    return AngleUnit.rad.transform(AngleUnit.deg, x);
+                case conjugate:
+                    return x;
+            }
+            throw new AssertionError();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledExpression{" + generic + ", variables=" + Arrays.toString(constants) + ", compiled=" + isCompiled() + "}";
+    }
+}
@@ -1,6 +1,7 @@
 package jscl.math;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 
 public class DoubleVariable extends GenericVariable {
 
@@ -26,6 +27,12 @@ public class DoubleVariable extends GenericVariable {
         else return expressionValue();
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Generic value = substitutions.get(this);
+        if (value != null) return value;
+        else return expressionValue();
+    }
+
     public Generic expand() {
         return expressionValue();
     }
@@ -5,10 +5,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import jscl.JsclMathEngine;
+import jscl.MathContext;
+import jscl.NumeralBase;
 import jscl.math.function.Constant;
 import jscl.math.function.Fraction;
 import jscl.math.function.Inverse;
@@ -17,11 +21,14 @@ import jscl.math.polynomial.Polynomial;
 import jscl.math.polynomial.UnivariatePolynomial;
 import jscl.mathml.MathML;
 import jscl.text.ExpressionParser;
+import jscl.text.ParseCache;
 import jscl.text.ParseException;
 import jscl.text.Parser;
 import jscl.text.ParserUtils;
+import jscl.text.SubexpressionCache;
 import jscl.text.msg.Messages;
 import jscl.util.ArrayUtils;
+import org.solovyev.common.math.AbstractMathRegistry;
 
 public class Expression extends Generic {
 
@@ -49,6 +56,10 @@ public class Expression extends Generic {
             return variable.numeric();
         }
     };
+    // multiplyLarge is used if the smaller operand has at least MULTIPLY_SMALLER_SIZE terms and the larger one
+    // MULTIPLY_LARGER_SIZE terms
+    private static final int MULTIPLY_SMALLER_SIZE = 4;
+    private static final int MULTIPLY_LARGER_SIZE = 16;
     int size;
     private Literal literals[];
     private JsclInteger coefficients[];
@@ -119,7 +130,27 @@ public class Expression extends Generic {
     }
 
     public static Expression valueOf(@Nonnull String expression) throws ParseException {
-        final Parser.Parameters p = Parser.Parameters.get(expression);
+        return valueOf(expression, JsclMathEngine.getInstance());
+    }
+
+    public static Expression valueOf(@Nonnull String expression, @Nonnull MathContext context) throws ParseException {
+        return valueOf(expression, context, null);
+    }
+
+    /**
+     * @param subexpressions cache of subexpressions parsed before, see {@link SubexpressionCache}
+     */
+    public static Expression valueOf(@Nonnull String expression, @Nonnull MathContext context, @Nullable SubexpressionCache subexpressions) throws ParseException {
+        final Parser.Parameters p = Parser.Parameters.get(expression, context, subexpressions);
+
+        final NumeralBase numeralBase = p.context.getNumeralBase();
+        final ParseCache cache = ParseCache.getInstance();
+        final Expression cached = cache.get(expression, numeralBase);
+        if (cached != null) {
+            return cached;
+        }
+        // read before parsing: if registries change in the meantime the entry will just never be hit
+        final int generation = AbstractMathRegistry.getGeneration();
 
         final Generic generic = ExpressionParser.parser.parse(p, null);
 
@@ -130,7 +161,9 @@ public class Expression extends Generic {
             throw new ParseException(index, expression, Messages.msg_1, index + 1);
         }
 
-        return new Expression().init(generic);
+        final Expression result = new Expression().init(generic);
+        cache.put(expression, numeralBase, generation, result);
+        return result;
     }
 
     public Expression init(@Nonnull NumericWrapper numericWrapper) {
@@ -262,6 +295,8 @@ public class Expression extends Generic {
     Expression multiplyAndAdd(@Nonnull Literal literal, @Nonnull JsclInteger coefficient, @Nonnull Expression that) {
         if (coefficient.signum() == 0) return this;
 
+        ParserUtils.checkInterruption();
+
         final Expression result = newInstance(size + that.size);
         int i = result.size;
 
@@ -304,6 +339,10 @@ public class Expression extends Generic {
     }
 
     public Expression multiply(Expression expression) {
+        if (Math.min(size, expression.size) >= MULTIPLY_SMALLER_SIZE && Math.max(size, expression.size) >= MULTIPLY_LARGER_SIZE) {
+            return multiplyLarge(expression);
+        }
+
         Expression result = newInstance(0);
 
         for (int i = 0; i < size; i++) {
@@ -313,6 +352,34 @@ public class Expression extends Generic {
         return result;
     }
 
+    /**
+     * Multiplies the larger expression by every term of the smaller one and sums the products with {@link SumBuilder}:
+     * multiplying by a term keeps the order of the literals, so the products need no merging themselves, and the sum
+     * doesn't merge each of them into the whole result built so far as {@link #multiplyAndAdd} does
+     */
+    @Nonnull
+    private Expression multiplyLarge(@Nonnull Expression that) {
+        final Expression smaller = size <= that.size ? this : that;
+        final Expression larger = smaller == this ? that : this;
+
+        final SumBuilder result = new SumBuilder();
+        for (int i = 0; i < smaller.size; i++) {
+            ParserUtils.checkInterruption();
+            result.add(larger.multiply(smaller.literals[i], smaller.coefficients[i]));
+        }
+        return (Expression) result.build();
+    }
+
+    @Nonnull
+    private Expression multiply(@Nonnull Literal literal, @Nonnull JsclInteger coefficient) {
+        final Expression result = newInstance(size);
+        for (int i = 0; i < size; i++) {
+            result.literals[i] = literals[i].multiply(literal);
+            result.coefficients[i] = coefficients[i].multiply(coefficient);
+        }
+        return result;
+    }
+
     @Nonnull
     public Generic multiply(@Nonnull Generic that) {
         if (that instanceof Expression) {
@@ -324,6 +391,50 @@ public class Expression extends Generic {
         }
     }
 
+    /**
+     * Sums whose terms can't produce the same literals are raised to the power by the multinomial theorem: every term
+     * of the result is computed directly, no intermediate powers are built. Other sums (e.g. univariate polynomials)
+     * are multiplied by themselves which is cheaper than squaring as their powers grow
+     */
+    @Override
+    public Generic pow(int exponent) {
+        if (size < 2 || exponent < 2) {
+            return super.pow(exponent);
+        }
+        if (hasIndependentTerms()) {
+            return new MultinomialExpansion(this, exponent).expand();
+        }
+        return powByMultiplication(exponent);
+    }
+
+    /**
+     * @return true if all the terms but one contain a variable which no other term contains. Then different products
+     * of the powers of the terms have different literals (the power of every term is the degree of its own variable)
+     */
+    private boolean hasIndependentTerms() {
+        final Map<Variable, Integer> terms = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            final Literal literal = literals[i];
+            for (int j = 0; j < literal.size(); j++) {
+                final Variable variable = literal.getVariable(j);
+                terms.put(variable, terms.containsKey(variable) ? -1 : i);
+            }
+        }
+        final boolean[] independent = new boolean[size];
+        for (Integer term : terms.values()) {
+            if (term >= 0) {
+                independent[term] = true;
+            }
+        }
+        int dependent = 0;
+        for (boolean b : independent) {
+            if (!b) {
+                dependent++;
+            }
+        }
+        return dependent <= 1;
+    }
+
     @Nonnull
     public Generic divide(@Nonnull Generic that) throws NotDivisibleException {
         Generic a[] = divideAndRemainder(that);
@@ -480,15 +591,15 @@ public class Expression extends Generic {
     }
 
     public Generic derivative(@Nonnull Variable variable) {
-        Generic s = JsclInteger.valueOf(0);
+        SumBuilder s = new SumBuilder();
         Literal l = literalScm();
         int n = l.size();
         for (int i = 0; i < n; i++) {
             Variable v = l.getVariable(i);
             Generic a = ((UnivariatePolynomial) Polynomial.factory(v).valueOf(this)).derivative(variable).genericValue();
-            s = s.add(a);
+            s.add(a);
         }
-        return s;
+        return s.build();
     }
 
     public Generic substitute(@Nonnull final Variable variable, final Generic generic) {
@@ -499,13 +610,27 @@ public class Expression extends Generic {
             }
         });
 
-        return substitute(content);
+        return substituteContent(content);
+    }
+
+    public Generic substitute(@Nonnull final Map<Variable, Generic> substitutions) {
+        final Map<Variable, Generic> content = literalScm().content(new com.google.common.base.Function<Variable, Generic>() {
+            @Nonnull
+            public Generic apply(@Nonnull Variable v) {
+                return v.substitute(substitutions);
+            }
+        });
+
+        return substituteContent(content);
     }
 
+    /**
+     * @param content values of all the variables of the literals
+     */
     @Nonnull
-    private Generic substitute(@Nonnull Map<Variable, Generic> content) {
+    private Generic substituteContent(@Nonnull Map<Variable, Generic> content) {
         // sum = sumElement_0 + sumElement_1 + ... + sumElement_size
-        Generic sum = JsclInteger.ZERO;
+        final SumBuilder sum = new SumBuilder();
 
         for (int i = 0; i < size; i++) {
             final Literal literal = literals[i];
@@ -527,10 +652,10 @@ public class Expression extends Generic {
                 sumElement = sumElement.multiply(b);
             }
 
-            sum = sum.add(sumElement);
+            sum.add(sumElement);
         }
 
-        return sum;
+        return sum.build();
     }
 
     @Nonnull
@@ -546,15 +671,41 @@ public class Expression extends Generic {
     }
 
     public Generic expand() {
-        return substitute(literalScm().content(EXPAND_CONVERTER));
+        final Memo memo = memo();
+        Generic result = memo == null ? null : memo.expanded;
+        if (result == null) {
+            result = substituteContent(literalScm().content(EXPAND_CONVERTER));
+            if (memo != null) {
+                memo.expanded = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return memo of the results of this expression or null if they should not be memoized
+     */
+    @Nullable
+    private Memo memo() {
+        final JsclMathEngine engine = JsclMathEngine.getInstance();
+        final MemoCache memos = engine.getMemoCache();
+        return memos == null ? null : memos.get(this, engine.getAngleUnits());
     }
 
     public Generic factorize() {
-        return Factorization.compute(substitute(literalScm().content(FACTORIZE_CONVERTER)));
+        return Factorization.compute(substituteContent(literalScm().content(FACTORIZE_CONVERTER)));
     }
 
     public Generic elementary() {
-        return substitute(literalScm().content(ELEMENTARY_CONVERTER));
+        final Memo memo = memo();
+        Generic result = memo == null ? null : memo.elementary;
+        if (result == null) {
+            result = substituteContent(literalScm().content(ELEMENTARY_CONVERTER));
+            if (memo != null) {
+                memo.elementary = result;
+            }
+        }
+        return result;
     }
 
     public Generic simplify() {
@@ -562,11 +713,19 @@ public class Expression extends Generic {
     }
 
     public Generic numeric() {
-        try {
-            return integerValue().numeric();
-        } catch (NotIntegerException ex) {
-            return substitute(literalScm().content(NUMERIC_CONVERTER));
+        final Memo memo = memo();
+        Generic result = memo == null ? null : memo.numeric;
+        if (result == null) {
+            try {
+                result = integerValue().numeric();
+            } catch (NotIntegerException ex) {
+                result = substituteContent(literalScm().content(NUMERIC_CONVERTER));
+            }
+            if (memo != null) {
+                memo.numeric = result;
+            }
         }
+        return result;
     }
 
     @Nonnull
@@ -715,6 +874,19 @@ public class Expression extends Generic {
         return true;
     }
 
+    @Override
+    public boolean isTimeDependent() {
+        for (int i = 0; i < size; i++) {
+            final Literal literal = literals[i];
+            for (int j = 0; j < literal.size(); j++) {
+                if (literal.getVariable(j).isTimeDependent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public JsclVector grad(Variable variable[]) {
         Generic v[] = new Generic[variable.length];
         for (int i = 0; i < variable.length; i++) v[i] = derivative(variable[i]);
@@ -910,4 +1082,77 @@ public class Expression extends Generic {
     private Expression newInstance(int n) {
         return new Expression(n);
     }
+
+    /**
+     * Expansion of <code>(t_1 + ... + t_k)^n</code> as the sum of <code>n!/(a_1!...a_k!) t_1^a_1...t_k^a_k</code> over
+     * all <code>a_1 + ... + a_k = n</code>. The multinomial coefficient is built as the product of the binomial
+     * coefficients <code>C(r, a_i)</code>, <code>r</code> being the part of the exponent not taken by the previous
+     * terms.
+     */
+    private static final class MultinomialExpansion {
+
+        @Nonnull
+        private final Expression expression;
+        private final int exponent;
+        // powers of the terms: literalPowers[i][a] = literal(i)^a, coefficientPowers[i][a] = coef(i)^a
+        @Nonnull
+        private final Literal[][] literalPowers;
+        @Nonnull
+        private final JsclInteger[][] coefficientPowers;
+        // binomials[r][a] = C(r, a), rows are computed on demand
+        @Nonnull
+        private final JsclInteger[][] binomials;
+        @Nonnull
+        private final SumBuilder result = new SumBuilder();
+
+        MultinomialExpansion(@Nonnull Expression expression, int exponent) {
+            this.expression = expression;
+            this.exponent = exponent;
+            final int size = expression.size;
+            literalPowers = new Literal[size][exponent + 1];
+            coefficientPowers = new JsclInteger[size][exponent + 1];
+            for (int i = 0; i < size; i++) {
+                literalPowers[i][0] = Literal.newInstance();
+                coefficientPowers[i][0] = JsclInteger.ONE;
+                for (int a = 1; a <= exponent; a++) {
+                    literalPowers[i][a] = literalPowers[i][a - 1].multiply(expression.literals[i]);
+                    coefficientPowers[i][a] = coefficientPowers[i][a - 1].multiply(expression.coefficients[i]);
+                }
+            }
+            binomials = new JsclInteger[exponent + 1][];
+        }
+
+        @Nonnull
+        Expression expand() {
+            expand(0, exponent, Literal.newInstance(), JsclInteger.ONE);
+            return (Expression) result.build();
+        }
+
+        private void expand(int i, int remaining, @Nonnull Literal literal, @Nonnull JsclInteger coefficient) {
+            if (i == expression.size - 1) {
+                // the last term takes the rest of the exponent
+                ParserUtils.checkInterruption();
+                result.add(valueOf(literal.multiply(literalPowers[i][remaining]), coefficient.multiply(coefficientPowers[i][remaining])));
+                return;
+            }
+            final JsclInteger[] binomial = binomials(remaining);
+            for (int a = remaining; a >= 0; a--) {
+                expand(i + 1, remaining - a, literal.multiply(literalPowers[i][a]), coefficient.multiply(binomial[a]).multiply(coefficientPowers[i][a]));
+            }
+        }
+
+        @Nonnull
+        private JsclInteger[] binomials(int n) {
+            JsclInteger[] row = binomials[n];
+            if (row == null) {
+                row = new JsclInteger[n + 1];
+                row[0] = JsclInteger.ONE;
+                for (int k = 1; k <= n; k++) {
+                    row[k] = row[k - 1].multiply(JsclInteger.valueOf(n - k + 1)).divide(JsclInteger.valueOf(k));
+                }
+                binomials[n] = row;
+            }
+            return row;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package jscl.math;
 import jscl.mathml.MathML;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 
 public class ExpressionVariable extends GenericVariable {
     public ExpressionVariable(Generic generic) {
@@ -14,6 +15,12 @@ public class ExpressionVariable extends GenericVariable {
         else return content.substitute(variable, generic);
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Generic value = substitutions.get(this);
+        if (value != null) return value;
+        else return content.substitute(substitutions);
+    }
+
     public Generic elementary() {
         return content.elementary();
     }
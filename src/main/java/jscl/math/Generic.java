@@ -1,5 +1,6 @@
 package jscl.math;
 
+import jscl.CalculationProfile;
 import jscl.math.function.Constant;
 import jscl.math.function.IConstant;
 import jscl.mathml.MathML;
@@ -10,10 +11,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.math.BigInteger;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public abstract class Generic implements Arithmetic<Generic>, Comparable {
 
+    protected Generic() {
+        CalculationProfile.onGenericCreated();
+    }
+
     @Nonnull
     public Set<Constant> getUndefinedConstants(@Nonnull MathRegistry<IConstant> constantsRegistry) {
         final Set<Constant> result = new HashSet<>();
@@ -108,9 +114,39 @@ public abstract class Generic implements Arithmetic<Generic>, Comparable {
         return gcdAndNormalize()[1];
     }
 
+    /**
+     * Exponentiation by squaring: O(log(exponent)) multiplications. See also {@link #powByMultiplication(int)}
+     */
     public Generic pow(int exponent) {
         assert exponent >= 0;
 
+        Generic result = JsclInteger.valueOf(1);
+        Generic power = this;
+
+        while (exponent > 0) {
+
+            ParserUtils.checkInterruption();
+
+            if ((exponent & 1) != 0) {
+                result = result.multiply(power);
+            }
+            exponent >>= 1;
+            if (exponent > 0) {
+                power = power.multiply(power);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Multiplies this by itself <var>exponent</var> times. Exponentiation by squaring needs fewer multiplications but
+     * multiplies large operands: if the size of the power grows with the exponent (e.g. polynomials) multiplying by the
+     * small base is cheaper
+     */
+    protected final Generic powByMultiplication(int exponent) {
+        assert exponent >= 0;
+
         Generic result = JsclInteger.valueOf(1);
 
         for (int i = 0; i < exponent; i++) {
@@ -143,6 +179,15 @@ public abstract class Generic implements Arithmetic<Generic>, Comparable {
 
     public abstract Generic substitute(@Nonnull Variable variable, Generic generic);
 
+    /**
+     * Simultaneous substitution: all the variables are replaced by their values at once, values are not substituted
+     * into each other as they would be by consecutive {@link #substitute(Variable, Generic)} calls
+     *
+     * @param substitutions values of the variables, map must find variables by {@link Variable#compareTo(Variable)}
+     *                      (e.g. {@link java.util.TreeMap})
+     */
+    public abstract Generic substitute(@Nonnull Map<Variable, Generic> substitutions);
+
     public abstract Generic expand();
 
     public abstract Generic factorize();
@@ -177,6 +222,21 @@ public abstract class Generic implements Arithmetic<Generic>, Comparable {
 
     public abstract boolean isConstant(@Nonnull Variable variable);
 
+    /**
+     * @return true if value of this generic changes from one evaluation to another (e.g. contains rand())
+     */
+    public boolean isTimeDependent() {
+        final Variable[] variables = variables();
+        if (variables != null) {
+            for (Variable variable : variables) {
+                if (variable.isTimeDependent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public boolean isIdentity(@Nonnull Variable variable) {
         try {
             return variableValue().isIdentity(variable);
@@ -5,6 +5,7 @@ import jscl.mathml.MathML;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.Set;
 
 public abstract class GenericVariable extends Variable {
@@ -57,6 +58,14 @@ public abstract class GenericVariable extends Variable {
         else return v.expressionValue();
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        GenericVariable v = (GenericVariable) newInstance();
+        v.content = content.substitute(substitutions);
+        final Generic value = substitutions.get(v);
+        if (value != null) return value;
+        else return v.expressionValue();
+    }
+
     public Generic expand() {
         return content.expand();
     }
@@ -87,6 +96,11 @@ public abstract class GenericVariable extends Variable {
         return content.isConstant(variable);
     }
 
+    @Override
+    public boolean isTimeDependent() {
+        return content.isTimeDependent();
+    }
+
     public int compareTo(Variable variable) {
         if (this == variable) return 0;
         int c = comparator.compare(this, variable);
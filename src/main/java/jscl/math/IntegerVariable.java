@@ -3,6 +3,7 @@ package jscl.math;
 import jscl.mathml.MathML;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 
 class IntegerVariable extends GenericVariable {
     IntegerVariable(Generic generic) {
@@ -14,6 +15,12 @@ class IntegerVariable extends GenericVariable {
         else return content.substitute(variable, generic);
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Generic value = substitutions.get(this);
+        if (value != null) return value;
+        else return content.substitute(substitutions);
+    }
+
     public Generic elementary() {
         return content.elementary();
     }
@@ -8,40 +8,90 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Integer of arbitrary size. Integers which fit into long (which are the most of the coefficients of expressions) are
+ * calculated with longs, {@link BigInteger} is used only if the result of an operation overflows.
+ */
 public final class JsclInteger extends Generic {
 
-    public static final JsclInteger factory = new JsclInteger(BigInteger.valueOf(0));
-    public static final JsclInteger ZERO = new JsclInteger(BigInteger.valueOf(0));
-    public static final JsclInteger ONE = new JsclInteger(BigInteger.valueOf(1));
-    private final BigInteger content;
+    // integers from CACHE_LOW to CACHE_HIGH are created only once
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1024;
+    private static final JsclInteger[] cache = newCache();
+
+    public static final JsclInteger factory = new JsclInteger(0L);
+    public static final JsclInteger ZERO = valueOf(0);
+    public static final JsclInteger ONE = valueOf(1);
+
+    // true if the integer fits into long and is stored in value
+    private final boolean small;
+    private final long value;
+    // created on demand for small integers
+    @Nullable
+    private BigInteger content;
 
     public JsclInteger(BigInteger content) {
+        this.small = content.bitLength() < Long.SIZE;
+        this.value = small ? content.longValue() : 0;
         this.content = content;
     }
 
+    private JsclInteger(long value) {
+        this.small = true;
+        this.value = value;
+    }
+
+    @Nonnull
+    private static JsclInteger[] newCache() {
+        final JsclInteger[] result = new JsclInteger[CACHE_HIGH - CACHE_LOW + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new JsclInteger((long) (CACHE_LOW + i));
+        }
+        return result;
+    }
+
     public static JsclInteger valueOf(long val) {
-        switch ((int) val) {
-            case 0:
-                return ZERO;
-            case 1:
-                return ONE;
-            default:
-                return new JsclInteger(BigInteger.valueOf(val));
+        if (val >= CACHE_LOW && val <= CACHE_HIGH) {
+            return cache[(int) val - CACHE_LOW];
         }
+        return new JsclInteger(val);
     }
 
     public static JsclInteger valueOf(String str) {
         return new JsclInteger(new BigInteger(str));
     }
 
+    /**
+     * @return true if the integer fits into long, see {@link #longValue()}
+     */
+    boolean isLong() {
+        return small;
+    }
+
+    long longValue() {
+        assert small;
+        return value;
+    }
+
     public BigInteger content() {
-        return content;
+        BigInteger result = content;
+        if (result == null) {
+            result = BigInteger.valueOf(value);
+            content = result;
+        }
+        return result;
     }
 
     public JsclInteger add(JsclInteger integer) {
-        return new JsclInteger(content.add(integer.content));
+        if (small && integer.small) {
+            if (isAddExact(value, integer.value)) {
+                return valueOf(value + integer.value);
+            }
+        }
+        return new JsclInteger(content().add(integer.content()));
     }
 
     @Nonnull
@@ -57,14 +107,19 @@ public final class JsclInteger extends Generic {
     }
 
     private boolean isZero() {
-        return content.equals(ZERO.content);
+        return small && value == 0;
     }
 
     public JsclInteger subtract(JsclInteger that) {
         if(isZero()) {
             return that.negate();
         }
-        return new JsclInteger(content.subtract(that.content));
+        if (small && that.small) {
+            if (isSubtractExact(value, that.value)) {
+                return valueOf(value - that.value);
+            }
+        }
+        return new JsclInteger(content().subtract(that.content()));
     }
 
     @Nonnull
@@ -77,7 +132,12 @@ public final class JsclInteger extends Generic {
     }
 
     public JsclInteger multiply(JsclInteger integer) {
-        return new JsclInteger(content.multiply(integer.content));
+        if (small && integer.small) {
+            if (isMultiplyExact(value, integer.value)) {
+                return valueOf(value * integer.value);
+            }
+        }
+        return new JsclInteger(content().multiply(integer.content()));
     }
 
     @Nonnull
@@ -93,7 +153,7 @@ public final class JsclInteger extends Generic {
     }
 
     private boolean isOne() {
-        return content.equals(ONE.content);
+        return small && value == 1;
     }
 
     public JsclInteger divide(@Nonnull JsclInteger that) {
@@ -119,8 +179,11 @@ public final class JsclInteger extends Generic {
 
     @Nonnull
     private JsclInteger[] divideAndRemainder(@Nonnull JsclInteger that) {
+        if (small && that.small && that.value != 0 && (value != Long.MIN_VALUE || that.value != -1)) {
+            return new JsclInteger[]{valueOf(value / that.value), valueOf(value % that.value)};
+        }
         try {
-            final BigInteger result[] = content.divideAndRemainder(that.content);
+            final BigInteger result[] = content().divideAndRemainder(that.content());
             return new JsclInteger[]{new JsclInteger(result[0]), new JsclInteger(result[1])};
         } catch (ArithmeticException e) {
             throw new NotDivisibleException();
@@ -136,7 +199,10 @@ public final class JsclInteger extends Generic {
     }
 
     public JsclInteger remainder(JsclInteger integer) throws ArithmeticException {
-        return new JsclInteger(content.remainder(integer.content));
+        if (small && integer.small && integer.value != 0) {
+            return valueOf(value % integer.value);
+        }
+        return new JsclInteger(content().remainder(integer.content()));
     }
 
     public Generic remainder(Generic generic) throws ArithmeticException {
@@ -149,7 +215,47 @@ public final class JsclInteger extends Generic {
 
     @Nonnull
     public JsclInteger gcd(@Nonnull JsclInteger integer) {
-        return new JsclInteger(content.gcd(integer.content));
+        if (small && integer.small && value != Long.MIN_VALUE && integer.value != Long.MIN_VALUE) {
+            return valueOf(gcd(value, integer.value));
+        }
+        return new JsclInteger(content().gcd(integer.content()));
+    }
+
+    // overflow checks of Math.addExact, subtractExact and multiplyExact: overflows are frequent in the calculations
+    // and exceptions are too expensive to signal them
+
+    static boolean isAddExact(long a, long b) {
+        final long r = a + b;
+        return ((a ^ r) & (b ^ r)) >= 0;
+    }
+
+    static boolean isSubtractExact(long a, long b) {
+        final long r = a - b;
+        return ((a ^ b) & (a ^ r)) >= 0;
+    }
+
+    static boolean isMultiplyExact(long a, long b) {
+        if ((int) a == a && (int) b == b) {
+            // |a * b| <= 2^62
+            return true;
+        }
+        final long r = a * b;
+        return a == 0 || (r / a == b && (a != -1 || b != Long.MIN_VALUE));
+    }
+
+    /**
+     * @return non-negative greatest common divisor of <var>a</var> and <var>b</var>, neither of which may be
+     * {@link Long#MIN_VALUE}
+     */
+    static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        while (b != 0) {
+            final long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
     }
 
     public Generic gcd(@Nonnull Generic generic) {
@@ -162,19 +268,22 @@ public final class JsclInteger extends Generic {
 
     @Nonnull
     public Generic gcd() {
-        return new JsclInteger(BigInteger.valueOf(signum()));
+        return valueOf(signum());
     }
 
     public Generic pow(int exponent) {
-        return new JsclInteger(content.pow(exponent));
+        return new JsclInteger(content().pow(exponent));
     }
 
     public JsclInteger negate() {
-        return new JsclInteger(content.negate());
+        if (small && value != Long.MIN_VALUE) {
+            return valueOf(-value);
+        }
+        return new JsclInteger(content().negate());
     }
 
     public int signum() {
-        return content.signum();
+        return small ? Long.signum(value) : content().signum();
     }
 
     public int degree() {
@@ -182,15 +291,15 @@ public final class JsclInteger extends Generic {
     }
 
     public JsclInteger mod(JsclInteger that) {
-        return new JsclInteger(content.mod(that.content));
+        return new JsclInteger(content().mod(that.content()));
     }
 
     public JsclInteger modPow(JsclInteger exponent, JsclInteger integer) {
-        return new JsclInteger(content.modPow(exponent.content, integer.content));
+        return new JsclInteger(content().modPow(exponent.content(), integer.content()));
     }
 
     public JsclInteger modInverse(JsclInteger integer) {
-        return new JsclInteger(content.modInverse(integer.content));
+        return new JsclInteger(content().modInverse(integer.content()));
     }
 
     public JsclInteger phi() {
@@ -267,6 +376,10 @@ public final class JsclInteger extends Generic {
         return this;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        return this;
+    }
+
     public Generic expand() {
         return this;
     }
@@ -288,21 +401,22 @@ public final class JsclInteger extends Generic {
     }
 
     public Generic valueOf(Generic generic) {
-        return new JsclInteger(((JsclInteger) generic).content);
+        // integers are immutable
+        return (JsclInteger) generic;
     }
 
     public Generic[] sumValue() {
-        if (content.signum() == 0) return new Generic[0];
+        if (signum() == 0) return new Generic[0];
         else return new Generic[]{this};
     }
 
     public Generic[] productValue() throws NotProductException {
-        if (content.compareTo(BigInteger.valueOf(1)) == 0) return new Generic[0];
+        if (isOne()) return new Generic[0];
         else return new Generic[]{this};
     }
 
     public Power powerValue() throws NotPowerException {
-        if (content.signum() < 0) throw new NotPowerException();
+        if (signum() < 0) throw new NotPowerException();
         else return new Power(this, 1);
     }
 
@@ -336,11 +450,14 @@ public final class JsclInteger extends Generic {
     }
 
     public int intValue() {
-        return content.intValue();
+        return small ? (int) value : content().intValue();
     }
 
     public int compareTo(JsclInteger integer) {
-        return content.compareTo(integer.content);
+        if (small && integer.small) {
+            return value < integer.value ? -1 : (value == integer.value ? 0 : 1);
+        }
+        return content().compareTo(integer.content());
     }
 
     public int compareTo(Generic generic) {
@@ -352,11 +469,11 @@ public final class JsclInteger extends Generic {
     }
 
     public String toString() {
-        return JsclMathEngine.getInstance().format(content);
+        return JsclMathEngine.getInstance().format(content());
     }
 
     public String toJava() {
-        return "JsclDouble.valueOf(" + content + ")";
+        return "JsclDouble.valueOf(" + content() + ")";
     }
 
     public void toMathML(MathML element, @Nullable Object data) {
@@ -380,17 +497,17 @@ public final class JsclInteger extends Generic {
 
     void bodyToMathML(MathML element) {
         MathML e1 = element.element("mn");
-        e1.appendChild(element.text(String.valueOf(content)));
+        e1.appendChild(element.text(String.valueOf(content())));
         element.appendChild(e1);
     }
 
     @Override
     public BigInteger toBigInteger() {
-        return content;
+        return content();
     }
 
     @Override
     public double doubleValue() throws NotDoubleException {
-        return content.doubleValue();
+        return small ? (double) value : content().doubleValue();
     }
 }
@@ -8,6 +8,7 @@ import jscl.util.ArrayComparator;
 
 import javax.annotation.Nonnull;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class JsclVector extends Generic {
@@ -181,6 +182,16 @@ public class JsclVector extends Generic {
         return result;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final JsclVector result = (JsclVector) newInstance();
+
+        for (int i = 0; i < rows; i++) {
+            result.elements[i] = elements[i].substitute(substitutions);
+        }
+
+        return result;
+    }
+
     public Generic expand() {
         JsclVector v = (JsclVector) newInstance();
         for (int i = 0; i < rows; i++) v.elements[i] = elements[i].expand();
@@ -276,6 +287,16 @@ public class JsclVector extends Generic {
         return false;
     }
 
+    @Override
+    public boolean isTimeDependent() {
+        for (Generic element : elements) {
+            if (element.isTimeDependent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public Generic magnitude2() {
         return scalarProduct(this);
     }
@@ -65,19 +65,23 @@ public class Literal implements Comparable {
         this.size = size;
     }
 
+    /**
+     * Shrinks the literal to the first <var>size</var> variables. The arrays are kept: they were allocated for the
+     * largest possible result of a merge and copying them again would only double the allocations of the merge
+     */
     void resize(int size) {
-        if (size < variables.length) {
-            Variable variable[] = new Variable[size];
-            int power[] = new int[size];
-            System.arraycopy(this.variables, 0, variable, 0, size);
-            System.arraycopy(this.powers, 0, power, 0, size);
-            this.variables = variable;
-            this.powers = power;
-            this.size = size;
-        }
+        assert size <= this.size;
+        this.size = size;
     }
 
     public Literal multiply(@Nonnull Literal that) {
+        // literals don't change after they are created, so they can be shared
+        if (that.size == 0) {
+            return this;
+        } else if (this.size == 0) {
+            return that;
+        }
+
         final Literal result = newInstance(size + that.size);
         int i = 0;
 
@@ -88,7 +92,7 @@ public class Literal implements Comparable {
         Variable thatVariable = thatI < that.size ? that.variables[thatI] : null;
 
         while (thisVariable != null || thatVariable != null) {
-            int c = thisVariable == null ? 1 : (thatVariable == null ? -1 : thisVariable.compareTo(thatVariable));
+            int c = thisVariable == null ? 1 : (thatVariable == null ? -1 : VariableTable.compare(thisVariable, thatVariable));
 
             if (c < 0) {
                 int s = powers[thisI];
@@ -128,6 +132,10 @@ public class Literal implements Comparable {
     }
 
     public Literal divide(Literal literal) throws ArithmeticException {
+        if (literal.size == 0) {
+            return this;
+        }
+
         Literal l = newInstance(size + literal.size);
         int i = 0;
         int i1 = 0;
@@ -135,7 +143,7 @@ public class Literal implements Comparable {
         Variable v1 = i1 < size ? variables[i1] : null;
         Variable v2 = i2 < literal.size ? literal.variables[i2] : null;
         while (v1 != null || v2 != null) {
-            int c = v1 == null ? 1 : (v2 == null ? -1 : v1.compareTo(v2));
+            int c = v1 == null ? 1 : (v2 == null ? -1 : VariableTable.compare(v1, v2));
             if (c < 0) {
                 int s = powers[i1];
                 l.variables[i] = v1;
@@ -185,7 +193,7 @@ public class Literal implements Comparable {
             } else if (thatVariable == null) {
                 c = -1;
             } else {
-                c = thisVariable.compareTo(thatVariable);
+                c = VariableTable.compare(thisVariable, thatVariable);
             }
 
             if (c < 0) {
@@ -232,7 +240,7 @@ public class Literal implements Comparable {
             } else if (thatVariable == null) {
                 c = -1;
             } else {
-                c = thisVariable.compareTo(thatVariable);
+                c = VariableTable.compare(thisVariable, thatVariable);
             }
 
             if (c < 0) {
@@ -312,6 +320,10 @@ public class Literal implements Comparable {
     }
 
     public int compareTo(@Nonnull Literal that) {
+        if (this == that) {
+            return 0;
+        }
+
         int thisI = this.size;
         int thatI = that.size;
 
@@ -325,7 +337,7 @@ public class Literal implements Comparable {
             } else if (thatVariable == null) {
                 c = 1;
             } else {
-                c = thisVariable.compareTo(thatVariable);
+                c = VariableTable.compare(thisVariable, thatVariable);
             }
 
             if (c < 0) {
@@ -10,6 +10,7 @@ import jscl.util.ArrayComparator;
 
 import javax.annotation.Nonnull;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 public class Matrix extends Generic {
@@ -174,6 +175,23 @@ public class Matrix extends Generic {
         }
     }
 
+    /**
+     * Matrices of numbers are raised to the power by squaring, matrices of polynomials are multiplied by themselves
+     * (see {@link #powByMultiplication(int)})
+     */
+    @Override
+    public Generic pow(int exponent) {
+        for (Generic[] row : elements) {
+            for (Generic element : row) {
+                final Variable[] variables = element.variables();
+                if (variables == null || variables.length > 0) {
+                    return powByMultiplication(exponent);
+                }
+            }
+        }
+        return super.pow(exponent);
+    }
+
     @Nonnull
     public Generic divide(@Nonnull Generic that) throws NotDivisibleException {
         if (that instanceof Matrix) {
@@ -259,6 +277,16 @@ public class Matrix extends Generic {
         return m;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        Matrix m = (Matrix) newInstance();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                m.elements[i][j] = elements[i][j].substitute(substitutions);
+            }
+        }
+        return m;
+    }
+
     public Generic expand() {
         Matrix m = (Matrix) newInstance();
         for (int i = 0; i < rows; i++) {
@@ -358,6 +386,18 @@ public class Matrix extends Generic {
         return false;
     }
 
+    @Override
+    public boolean isTimeDependent() {
+        for (Generic[] row : elements) {
+            for (Generic element : row) {
+                if (element.isTimeDependent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public Generic[] vectors() {
         JsclVector v[] = new JsclVector[rows];
         for (int i = 0; i < rows; i++) {
@@ -0,0 +1,25 @@
+package jscl.math;
+
+import javax.annotation.Nullable;
+
+/**
+ * Results of {@link Generic#expand()}, {@link Generic#numeric()} and {@link Generic#elementary()} of an expression
+ * (expressions don't change, so do their results as long as the settings they depend on are the same). Memos are kept
+ * by {@link MemoCache}, not by the expressions themselves.
+ */
+final class Memo {
+
+    // results are not memoized if true
+    final boolean timeDependent;
+
+    @Nullable
+    volatile Generic expanded;
+    @Nullable
+    volatile Generic numeric;
+    @Nullable
+    volatile Generic elementary;
+
+    Memo(boolean timeDependent) {
+        this.timeDependent = timeDependent;
+    }
+}
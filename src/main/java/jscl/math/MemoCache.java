@@ -0,0 +1,88 @@
+package jscl.math;
+
+import jscl.AngleUnit;
+import jscl.JsclMathEngine;
+import org.solovyev.common.collections.LruCache;
+import org.solovyev.common.math.AbstractMathRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Keeps the results of expanding, numeric and elementary calculations of the expressions calculated by an engine, see
+ * {@link JsclMathEngine#setMemoization(boolean)}. Makes sense when the same expressions are calculated again and again,
+ * e.g. subexpressions reused by incremental parsing.
+ * <p/>
+ * Parsed expressions are shared between engines with different settings (see {@link jscl.text.ParseCache}), so the
+ * results are kept by each engine instead of the expressions. Entries are keyed by the identity of the expressions
+ * and dropped when angle units or registries change. Results of time dependent expressions are never memoized.
+ */
+public final class MemoCache {
+
+    private static final int MAX_SIZE = 1024;
+
+    @Nonnull
+    private final LruCache<Key, Memo> memos = new LruCache<>(MAX_SIZE);
+
+    @GuardedBy("this")
+    @Nullable
+    private AngleUnit angleUnits;
+
+    @GuardedBy("this")
+    private int generation = -1;
+
+    /**
+     * @return memo of <var>expression</var> valid for <var>angleUnits</var> and the current registries or null if
+     * results of <var>expression</var> should not be memoized
+     */
+    @Nullable
+    synchronized Memo get(@Nonnull Expression expression, @Nonnull AngleUnit angleUnits) {
+        final int generation = AbstractMathRegistry.getGeneration();
+        if (this.angleUnits != angleUnits || this.generation != generation) {
+            // memos handed out before stay with the calculations which got them
+            memos.clear();
+            this.angleUnits = angleUnits;
+            this.generation = generation;
+        }
+
+        final Key key = new Key(expression);
+        Memo memo = memos.get(key);
+        if (memo == null) {
+            memo = new Memo(expression.isTimeDependent());
+            memos.put(key, memo);
+        }
+        return memo.timeDependent ? null : memo;
+    }
+
+    public long getHits() {
+        return memos.getHits();
+    }
+
+    public long getMisses() {
+        return memos.getMisses();
+    }
+
+    public int getSize() {
+        return memos.getSize();
+    }
+
+    private static final class Key {
+        @Nonnull
+        private final Expression expression;
+
+        private Key(@Nonnull Expression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && expression == ((Key) o).expression;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(expression);
+        }
+    }
+}
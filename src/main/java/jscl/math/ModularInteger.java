@@ -6,6 +6,7 @@ import jscl.mathml.MathML;
 import javax.annotation.Nonnull;
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 public class ModularInteger extends Generic implements Field {
@@ -103,6 +104,10 @@ public class ModularInteger extends Generic implements Field {
         throw new UnsupportedOperationException();
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        throw new UnsupportedOperationException();
+    }
+
     public Generic expand() {
         throw new UnsupportedOperationException();
     }
@@ -0,0 +1,35 @@
+package jscl.math;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Vector of numbers written as literals, e.g. [1, 2.5, -3e-2]. Values of the elements are kept in a primitive array, so
+ * numeric calculations (see {@link NumericWrapper#NumericWrapper(JsclVector)} and statistical operators) don't need to
+ * evaluate each element. Results of the operations on such vectors are usual {@link JsclVector}s.
+ */
+public final class NumberVector extends JsclVector {
+
+    @Nonnull
+    private final double[] values;
+
+    /**
+     * @param elements numbers
+     * @param values   values of <var>elements</var>, <code>values[i]</code> is the same as the numeric value of
+     *                 <code>elements[i]</code>
+     */
+    public NumberVector(@Nonnull Generic[] elements, @Nonnull double[] values) {
+        super(elements);
+        this.values = values;
+    }
+
+    @Nonnull
+    public double[] values() {
+        return values;
+    }
+
+    @Override
+    public Generic expand() {
+        // numbers are expanded already
+        return this;
+    }
+}
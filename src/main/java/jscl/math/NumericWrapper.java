@@ -2,6 +2,7 @@ package jscl.math;
 
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
@@ -23,7 +24,7 @@ public final class NumericWrapper extends Generic implements INumeric<NumericWra
     private final Numeric content;
 
     public NumericWrapper(@Nonnull JsclInteger integer) {
-        content = Real.valueOf(integer.content().doubleValue());
+        content = Real.valueOf(integer.doubleValue());
     }
 
     public NumericWrapper(@Nonnull Rational rational) {
@@ -31,6 +32,11 @@ public final class NumericWrapper extends Generic implements INumeric<NumericWra
     }
 
     public NumericWrapper(@Nonnull JsclVector vector) {
+        if (vector instanceof NumberVector) {
+            content = Vector.valueOf(((NumberVector) vector).values());
+            return;
+        }
+
         final Numeric elements[] = new Numeric[vector.rows];
 
         for (int i = 0; i < vector.rows; i++) {
@@ -188,6 +194,10 @@ public final class NumericWrapper extends Generic implements INumeric<NumericWra
         return this;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        return this;
+    }
+
     public Generic expand() {
         return this;
     }
@@ -461,7 +471,7 @@ public final class NumericWrapper extends Generic implements INumeric<NumericWra
 
     @Nonnull
     public static Generic valueOf(long value) {
-        return new NumericWrapper(new JsclInteger(BigInteger.valueOf(value)));
+        return new NumericWrapper(JsclInteger.valueOf(value));
     }
 
     @Nonnull
@@ -7,45 +7,106 @@ import jscl.mathml.MathML;
 
 import java.math.BigInteger;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
+/**
+ * Fraction of integers. Like {@link JsclInteger}, fractions whose numerator and denominator fit into long are
+ * calculated with longs and {@link BigInteger} is used only if an operation overflows.
+ */
 public final class Rational extends Generic implements Field {
 
-    public static final Rational factory = new Rational(BigInteger.valueOf(0), BigInteger.valueOf(1));
+    public static final Rational factory = new Rational(0, 1);
 
-    final BigInteger numerator;
-    final BigInteger denominator;
+    // true if both numerator and denominator fit into long and are stored in num and den
+    private final boolean small;
+    private final long num;
+    private final long den;
+    // created on demand for small fractions
+    @Nullable
+    private BigInteger numerator;
+    @Nullable
+    private BigInteger denominator;
 
     public Rational(BigInteger numerator, BigInteger denominator) {
+        this.small = numerator.bitLength() < Long.SIZE && denominator.bitLength() < Long.SIZE;
+        this.num = small ? numerator.longValue() : 0;
+        this.den = small ? denominator.longValue() : 0;
         this.numerator = numerator;
         this.denominator = denominator;
     }
 
+    private Rational(long numerator, long denominator) {
+        this.small = true;
+        this.num = numerator;
+        this.den = denominator;
+    }
+
     static BigInteger scm(BigInteger b1, BigInteger b2) {
         return b1.multiply(b2).divide(b1.gcd(b2));
     }
 
     public BigInteger numerator() {
-        return numerator;
+        BigInteger result = numerator;
+        if (result == null) {
+            result = BigInteger.valueOf(num);
+            numerator = result;
+        }
+        return result;
     }
 
     public BigInteger denominator() {
-        return denominator;
+        BigInteger result = denominator;
+        if (result == null) {
+            result = BigInteger.valueOf(den);
+            denominator = result;
+        }
+        return result;
+    }
+
+    // true if the operations on both fractions can be done with longs, results still might overflow
+    private boolean isSmall(@Nonnull Rational that) {
+        return small && that.small && num != Long.MIN_VALUE && den != Long.MIN_VALUE && that.num != Long.MIN_VALUE && that.den != Long.MIN_VALUE;
     }
 
     public Rational add(Rational rational) {
-        BigInteger gcd = denominator.gcd(rational.denominator);
-        BigInteger c = denominator.divide(gcd);
-        BigInteger c2 = rational.denominator.divide(gcd);
-        return new Rational(numerator.multiply(c2).add(rational.numerator.multiply(c)), denominator.multiply(c2)).reduce();
+        if (isSmall(rational)) {
+            final long gcd = JsclInteger.gcd(den, rational.den);
+            if (gcd != 0) {
+                final long c = den / gcd;
+                final long c2 = rational.den / gcd;
+                if (JsclInteger.isMultiplyExact(num, c2) && JsclInteger.isMultiplyExact(rational.num, c) && JsclInteger.isMultiplyExact(den, c2)
+                        && JsclInteger.isAddExact(num * c2, rational.num * c)) {
+                    return reduce(num * c2 + rational.num * c, den * c2);
+                }
+            }
+        }
+        BigInteger gcd = denominator().gcd(rational.denominator());
+        BigInteger c = denominator().divide(gcd);
+        BigInteger c2 = rational.denominator().divide(gcd);
+        return new Rational(numerator().multiply(c2).add(rational.numerator().multiply(c)), denominator().multiply(c2)).reduce();
     }
 
     Rational reduce() {
-        BigInteger gcd = numerator.gcd(denominator);
-        if (gcd.signum() != denominator.signum()) gcd = gcd.negate();
-        return gcd.signum() == 0 ? this : new Rational(numerator.divide(gcd), denominator.divide(gcd));
+        if (small && num != Long.MIN_VALUE && den != Long.MIN_VALUE) {
+            return reduce(num, den);
+        }
+        BigInteger gcd = numerator().gcd(denominator());
+        if (gcd.signum() != denominator().signum()) gcd = gcd.negate();
+        return gcd.signum() == 0 ? this : new Rational(numerator().divide(gcd), denominator().divide(gcd));
+    }
+
+    @Nonnull
+    private static Rational reduce(long numerator, long denominator) {
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            return new Rational(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator)).reduce();
+        }
+        long gcd = JsclInteger.gcd(numerator, denominator);
+        if (Long.signum(gcd) != Long.signum(denominator)) gcd = -gcd;
+        return gcd == 0 ? new Rational(numerator, denominator) : new Rational(numerator / gcd, denominator / gcd);
     }
 
     @Nonnull
@@ -60,9 +121,22 @@ public final class Rational extends Generic implements Field {
     }
 
     public Rational multiply(Rational rational) {
-        BigInteger gcd = numerator.gcd(rational.denominator);
-        BigInteger gcd2 = denominator.gcd(rational.numerator);
-        return new Rational(numerator.divide(gcd).multiply(rational.numerator.divide(gcd2)), denominator.divide(gcd2).multiply(rational.denominator.divide(gcd)));
+        if (isSmall(rational)) {
+            final long gcd = JsclInteger.gcd(num, rational.den);
+            final long gcd2 = JsclInteger.gcd(den, rational.num);
+            if (gcd != 0 && gcd2 != 0) {
+                final long n1 = num / gcd;
+                final long n2 = rational.num / gcd2;
+                final long d1 = den / gcd2;
+                final long d2 = rational.den / gcd;
+                if (JsclInteger.isMultiplyExact(n1, n2) && JsclInteger.isMultiplyExact(d1, d2)) {
+                    return new Rational(n1 * n2, d1 * d2);
+                }
+            }
+        }
+        BigInteger gcd = numerator().gcd(rational.denominator());
+        BigInteger gcd2 = denominator().gcd(rational.numerator());
+        return new Rational(numerator().divide(gcd).multiply(rational.numerator().divide(gcd2)), denominator().divide(gcd2).multiply(rational.denominator().divide(gcd)));
     }
 
     @Nonnull
@@ -88,12 +162,24 @@ public final class Rational extends Generic implements Field {
     }
 
     public Generic inverse() {
-        if (signum() < 0) return new Rational(denominator.negate(), numerator.negate());
-        else return new Rational(denominator, numerator);
+        if (small && num != Long.MIN_VALUE && den != Long.MIN_VALUE) {
+            if (signum() < 0) return new Rational(-den, -num);
+            else return new Rational(den, num);
+        }
+        if (signum() < 0) return new Rational(denominator().negate(), numerator().negate());
+        else return new Rational(denominator(), numerator());
     }
 
     public Rational gcd(Rational rational) {
-        return new Rational(numerator.gcd(rational.numerator), scm(denominator, rational.denominator));
+        if (isSmall(rational)) {
+            final long gcd = JsclInteger.gcd(den, rational.den);
+            if (gcd != 0) {
+                if (JsclInteger.isMultiplyExact(den, rational.den)) {
+                    return new Rational(JsclInteger.gcd(num, rational.num), den * rational.den / gcd);
+                }
+            }
+        }
+        return new Rational(numerator().gcd(rational.numerator()), scm(denominator(), rational.denominator()));
     }
 
     public Generic gcd(@Nonnull Generic generic) {
@@ -116,11 +202,14 @@ public final class Rational extends Generic implements Field {
     }
 
     public Generic negate() {
-        return new Rational(numerator.negate(), denominator);
+        if (small && num != Long.MIN_VALUE) {
+            return new Rational(-num, den);
+        }
+        return new Rational(numerator().negate(), denominator());
     }
 
     public int signum() {
-        return numerator.signum();
+        return small ? Long.signum(num) : numerator().signum();
     }
 
     public int degree() {
@@ -139,6 +228,10 @@ public final class Rational extends Generic implements Field {
         return this;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        return this;
+    }
+
     public Generic expand() {
         return this;
     }
@@ -161,17 +254,26 @@ public final class Rational extends Generic implements Field {
 
     public Generic valueOf(Generic generic) {
         if (generic instanceof Rational) {
-            Rational r = (Rational) generic;
-            return new Rational(r.numerator, r.denominator);
+            // fractions are immutable
+            return generic;
         } else if (generic instanceof Expression) {
             boolean sign = generic.signum() < 0;
             Generic g[] = ((Fraction) (sign ? generic.negate() : generic).variableValue()).getParameters();
             JsclInteger numerator = (JsclInteger) (sign ? g[0].negate() : g[0]);
             JsclInteger denominator = (JsclInteger) g[1];
-            return new Rational(numerator.content(), denominator.content());
+            return valueOf(numerator, denominator);
         } else {
             JsclInteger en = (JsclInteger) generic;
-            return new Rational(en.content(), BigInteger.valueOf(1));
+            return valueOf(en, JsclInteger.ONE);
+        }
+    }
+
+    @Nonnull
+    private static Rational valueOf(@Nonnull JsclInteger numerator, @Nonnull JsclInteger denominator) {
+        if (numerator.isLong() && denominator.isLong()) {
+            return new Rational(numerator.longValue(), denominator.longValue());
+        } else {
+            return new Rational(numerator.content(), denominator.content());
         }
     }
 
@@ -202,8 +304,8 @@ public final class Rational extends Generic implements Field {
     }
 
     public JsclInteger integerValue() throws NotIntegerException {
-        if (denominator.compareTo(BigInteger.ONE) == 0) {
-            return new JsclInteger(numerator);
+        if (small ? den == 1 : denominator().compareTo(BigInteger.ONE) == 0) {
+            return small ? JsclInteger.valueOf(num) : new JsclInteger(numerator());
         } else {
             throw NotIntegerException.get();
         }
@@ -211,7 +313,10 @@ public final class Rational extends Generic implements Field {
 
     @Override
     public double doubleValue() throws NotDoubleException {
-        return numerator.doubleValue() / denominator.doubleValue();
+        if (small) {
+            return (double) num / (double) den;
+        }
+        return numerator().doubleValue() / denominator().doubleValue();
     }
 
     @Override
@@ -229,8 +334,8 @@ public final class Rational extends Generic implements Field {
             integerValue();
             throw new NotVariableException();
         } catch (NotIntegerException e) {
-            if (numerator.compareTo(BigInteger.valueOf(1)) == 0) return new Inverse(new JsclInteger(denominator));
-            else return new Fraction(new JsclInteger(numerator), new JsclInteger(denominator));
+            if (numerator().compareTo(BigInteger.valueOf(1)) == 0) return new Inverse(new JsclInteger(denominator()));
+            else return new Fraction(new JsclInteger(numerator()), new JsclInteger(denominator()));
         }
     }
 
@@ -247,10 +352,14 @@ public final class Rational extends Generic implements Field {
     }
 
     public int compareTo(Rational rational) {
-        int c = denominator.compareTo(rational.denominator);
+        if (small && rational.small) {
+            if (den != rational.den) return den < rational.den ? -1 : 1;
+            else return num < rational.num ? -1 : (num == rational.num ? 0 : 1);
+        }
+        int c = denominator().compareTo(rational.denominator());
         if (c < 0) return -1;
         else if (c > 0) return 1;
-        else return numerator.compareTo(rational.numerator);
+        else return numerator().compareTo(rational.numerator());
     }
 
     public int compareTo(Generic generic) {
@@ -268,15 +377,15 @@ public final class Rational extends Generic implements Field {
         try {
             result.append(integerValue());
         } catch (NotIntegerException e) {
-            result.append(numerator);
+            result.append(numerator());
             result.append("/");
-            result.append(denominator);
+            result.append(denominator());
         }
         return result.toString();
     }
 
     public String toJava() {
-        return "JsclDouble.valueOf(" + numerator + "/" + denominator + ")";
+        return "JsclDouble.valueOf(" + numerator() + "/" + denominator() + ")";
     }
 
     public void toMathML(MathML element, Object data) {
@@ -306,10 +415,10 @@ public final class Rational extends Generic implements Field {
         } catch (NotIntegerException e) {
             MathML e1 = element.element("mfrac");
             MathML e2 = element.element("mn");
-            e2.appendChild(element.text(String.valueOf(numerator)));
+            e2.appendChild(element.text(String.valueOf(numerator())));
             e1.appendChild(e2);
             e2 = element.element("mn");
-            e2.appendChild(element.text(String.valueOf(denominator)));
+            e2.appendChild(element.text(String.valueOf(denominator())));
             e1.appendChild(e2);
             element.appendChild(e1);
         }
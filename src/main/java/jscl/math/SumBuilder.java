@@ -0,0 +1,128 @@
+package jscl.math;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Sum of many elements which doesn't create all the intermediate sums. Expressions are merged in buckets of growing
+ * sizes (geobuckets): an expression is merged only with expressions of about the same size, so adding n elements costs
+ * O(n log n) merged terms instead of O(n^2) of adding the elements one by one with {@link Generic#add(Generic)}.
+ * <p/>
+ * The sum of expressions and integers doesn't depend on the order of the additions, the result is the same as the one
+ * <code>initial.add(element_1).add(element_2)...</code> would give. Other elements (e.g. matrices or numbers) are
+ * added one by one in the order of their appearance.
+ */
+public final class SumBuilder {
+
+    // bucket i contains at most 4^(i + 1) terms, the last one is unbounded
+    private static final int BUCKETS = 16;
+
+    @Nonnull
+    private final Expression[] buckets = new Expression[BUCKETS];
+    // sum of the integer elements
+    @Nonnull
+    private JsclInteger integer = JsclInteger.ZERO;
+    // true if some of the elements was an expression, so the result is an expression too
+    private boolean expression;
+    // sum which is not an expression nor an integer, elements are added to it one by one
+    @Nullable
+    private Generic generic;
+
+    public SumBuilder() {
+    }
+
+    public SumBuilder(@Nonnull Generic initial) {
+        if (initial instanceof JsclInteger) {
+            integer = (JsclInteger) initial;
+        } else if (initial instanceof Expression) {
+            addExpression((Expression) initial);
+        } else {
+            generic = initial;
+        }
+    }
+
+    @Nonnull
+    public SumBuilder add(@Nonnull Generic element) {
+        if (generic != null) {
+            final Generic sum = generic.add(element);
+            generic = null;
+            if (sum instanceof Expression) {
+                addExpression((Expression) sum);
+            } else if (sum instanceof JsclInteger) {
+                integer = (JsclInteger) sum;
+            } else {
+                generic = sum;
+            }
+        } else if (element instanceof JsclInteger) {
+            integer = integer.add((JsclInteger) element);
+        } else if (element instanceof Expression) {
+            addExpression((Expression) element);
+        } else {
+            final Generic sum = build();
+            clear();
+            generic = sum;
+            add(element);
+        }
+        return this;
+    }
+
+    private void addExpression(@Nonnull Expression e) {
+        expression = true;
+        for (int i = bucket(e.size); i < BUCKETS; i++) {
+            if (buckets[i] != null) {
+                e = buckets[i].add(e);
+                buckets[i] = null;
+            }
+            if (i == BUCKETS - 1 || e.size <= capacity(i)) {
+                buckets[i] = e;
+                return;
+            }
+        }
+    }
+
+    private static int bucket(int size) {
+        int i = 0;
+        while (i < BUCKETS - 1 && size > capacity(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int capacity(int bucket) {
+        return 1 << (2 * bucket + 2);
+    }
+
+    private void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = null;
+        }
+        integer = JsclInteger.ZERO;
+        expression = false;
+        generic = null;
+    }
+
+    /**
+     * @return sum of the elements added so far
+     */
+    @Nonnull
+    public Generic build() {
+        if (generic != null) {
+            return generic;
+        }
+        if (!expression) {
+            return integer;
+        }
+
+        Expression result = null;
+        for (Expression bucket : buckets) {
+            if (bucket != null) {
+                result = result == null ? bucket : result.add(bucket);
+            }
+        }
+        assert result != null;
+        if (integer.signum() != 0) {
+            result = result.add(Expression.valueOf(integer));
+        }
+        return result;
+    }
+}
@@ -4,6 +4,7 @@ import jscl.math.function.Constant;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 public class TechnicalVariable extends Variable {
@@ -33,6 +34,12 @@ public class TechnicalVariable extends Variable {
         else return expressionValue();
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Generic value = substitutions.get(this);
+        if (value != null) return value;
+        else return expressionValue();
+    }
+
     public Generic expand() {
         return expressionValue();
     }
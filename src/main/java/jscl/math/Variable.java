@@ -108,6 +108,8 @@ public abstract class Variable implements Comparable, MathEntity {
     protected String name;
     private Integer id;
     private boolean system = true;
+    // see VariableTable, computed on the first comparison by rank
+    private int rank = VariableTable.UNKNOWN;
 
     public Variable(@Nonnull String name) {
         this.name = name;
@@ -157,6 +159,7 @@ public abstract class Variable implements Comparable, MathEntity {
             this.name = ((Variable) that).name;
             this.id = ((Variable) that).id;
             this.system = ((Variable) that).system;
+            this.rank = VariableTable.UNKNOWN;
         }
     }
 
@@ -167,6 +170,11 @@ public abstract class Variable implements Comparable, MathEntity {
 
     public abstract Generic substitute(Variable variable, Generic generic);
 
+    /**
+     * @see Generic#substitute(Map)
+     */
+    public abstract Generic substitute(@Nonnull Map<Variable, Generic> substitutions);
+
     public abstract Generic expand();
 
     public abstract Generic factorize();
@@ -184,12 +192,33 @@ public abstract class Variable implements Comparable, MathEntity {
 
     public abstract boolean isConstant(Variable variable);
 
+    public boolean isTimeDependent() {
+        return this instanceof TimeDependent;
+    }
+
     public boolean isIdentity(@Nonnull Variable variable) {
         return this.compareTo(variable) == 0;
     }
 
     public abstract int compareTo(Variable variable);
 
+    /**
+     * Copies the rank of the variable to be compared as fast as <var>that</var>, should be called only if this variable
+     * is equal to <var>that</var>
+     */
+    protected final void copyRank(@Nonnull Variable that) {
+        rank = that.rank;
+    }
+
+    final int rank() {
+        int result = rank;
+        if (result == VariableTable.UNKNOWN) {
+            result = VariableTable.rankOf(this);
+            rank = result;
+        }
+        return result;
+    }
+
     public int compareTo(Object o) {
         return compareTo((Variable) o);
     }
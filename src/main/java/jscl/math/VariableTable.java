@@ -0,0 +1,92 @@
+package jscl.math;
+
+import jscl.math.function.Constant;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Interning table of variables. Every distinct variable added to the table gets an integer rank, ranks are ordered in
+ * the same way as the variables themselves, so two ranked variables can be compared by their ranks instead of
+ * {@link Variable#compareTo(Variable)}.
+ * <p/>
+ * Only constants without subscripts are ranked: they don't change after they are created (unlike functions whose
+ * parameters are set later), they are the most of the variables of polynomials and there are few distinct ones (unlike
+ * subscripted constants, e.g. x[i] produced by sums, which would fill the table and keep their subscripts alive). Copies
+ * of a ranked constant get its rank without looking it up (see {@link Variable#copyRank(Variable)}). The table is
+ * bounded, variables which don't fit into it are left without rank and are compared as usual.
+ */
+final class VariableTable {
+
+    // rank is not computed yet
+    static final int UNKNOWN = Integer.MIN_VALUE;
+    // variable can't be ranked
+    static final int NONE = Integer.MIN_VALUE + 1;
+
+    private static final int MAX_SIZE = 4096;
+    // distance between the ranks of the variables appended to either end of the table
+    private static final int STEP = 1 << 16;
+
+    private static final TreeMap<Variable, Integer> ranks = new TreeMap<>();
+
+    private VariableTable() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @return rank of the variable (which is the same for all the variables equal to it) or {@link #NONE}
+     */
+    static int rankOf(@Nonnull Variable variable) {
+        if (!(variable instanceof Constant) || ((Constant) variable).subscript().length != 0) {
+            return NONE;
+        }
+        synchronized (ranks) {
+            final Integer rank = ranks.get(variable);
+            if (rank != null) {
+                return rank;
+            }
+            if (ranks.size() >= MAX_SIZE) {
+                return NONE;
+            }
+
+            final Map.Entry<Variable, Integer> lower = ranks.lowerEntry(variable);
+            final Map.Entry<Variable, Integer> higher = ranks.higherEntry(variable);
+            final int result;
+            if (lower == null && higher == null) {
+                result = 0;
+            } else if (higher == null) {
+                result = lower.getValue() + STEP;
+            } else if (lower == null) {
+                result = higher.getValue() - STEP;
+            } else {
+                final int l = lower.getValue();
+                final int h = higher.getValue();
+                result = l + (h - l) / 2;
+                if (result == l) {
+                    // no free rank between the neighbours
+                    return NONE;
+                }
+            }
+            ranks.put(variable, result);
+            return result;
+        }
+    }
+
+    /**
+     * Same sign as <code>l.compareTo(r)</code>
+     */
+    static int compare(@Nonnull Variable l, @Nonnull Variable r) {
+        if (l == r) {
+            return 0;
+        }
+        final int lRank = l.rank();
+        if (lRank != NONE) {
+            final int rRank = r.rank();
+            if (rRank != NONE) {
+                return lRank < rRank ? -1 : (lRank == rRank ? 0 : 1);
+            }
+        }
+        return l.compareTo(r);
+    }
+}
@@ -2,6 +2,7 @@ package jscl.math.function;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
@@ -19,7 +20,8 @@ public class Constant extends Variable {
     public static final int PRIME_CHARS = 3;
     private final int prime;
     private final Generic subscripts[];
-    private Object[] hashArray;
+    // cached hash code, 0 if not computed yet
+    private int hash;
 
     public Constant(String name) {
         this(name, 0, new Generic[0]);
@@ -83,6 +85,20 @@ public class Constant extends Variable {
         }
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        Constant v = (Constant) newInstance();
+        for (int i = 0; i < subscripts.length; i++) {
+            v.subscripts[i] = subscripts[i].substitute(substitutions);
+        }
+
+        final Generic value = substitutions.get(v);
+        if (value != null) {
+            return value;
+        } else {
+            return v.expressionValue();
+        }
+    }
+
     public Generic expand() {
         Constant v = (Constant) newInstance();
         for (int i = 0; i < subscripts.length; i++) {
@@ -153,20 +169,12 @@ public class Constant extends Variable {
 
     @Override
     public int hashCode() {
-        final Object[] hashArray = getHashArray();
-        hashArray[0] = Constant.class;
-        hashArray[1] = name;
-        hashArray[2] = subscripts;
-        hashArray[3] = prime;
-        return Arrays.deepHashCode(this.hashArray);
-    }
-
-    @Nonnull
-    private Object[] getHashArray() {
-        if(hashArray == null) {
-            hashArray = new Object[4];
+        int result = hash;
+        if (result == 0) {
+            result = Arrays.deepHashCode(new Object[]{Constant.class, name, subscripts, prime});
+            hash = result;
         }
-        return hashArray;
+        return result;
     }
 
     public String toString() {
@@ -267,7 +275,12 @@ public class Constant extends Variable {
 
     @Nonnull
     public Variable newInstance() {
-        return new Constant(name, prime, new Generic[subscripts.length]);
+        final Constant result = new Constant(name, prime, new Generic[subscripts.length]);
+        if (subscripts.length == 0) {
+            // the copy is equal to this constant
+            result.copyRank(this);
+        }
+        return result;
     }
 
     @Nonnull
@@ -3,6 +3,8 @@ package jscl.math.function;
 import org.solovyev.common.math.AbstractMathRegistry;
 import org.solovyev.common.math.MathRegistry;
 
+import java.util.Arrays;
+
 public class ConstantsRegistry extends AbstractMathRegistry<IConstant> {
     private static final ConstantsRegistry INSTANCE = new ConstantsRegistry();
 
@@ -20,16 +22,17 @@ public class ConstantsRegistry extends AbstractMathRegistry<IConstant> {
 
     @Override
     public void onInit() {
-        add(new PiConstant());
-        add(new ExtendedConstant(Constants.PI_INV, Math.PI, null));
-        add(new ExtendedConstant(Constants.INF, Double.POSITIVE_INFINITY, "JsclDouble.valueOf(Double.POSITIVE_INFINITY)"));
-        add(new ExtendedConstant(Constants.INF_2, Double.POSITIVE_INFINITY, "JsclDouble.valueOf(Double.POSITIVE_INFINITY)"));
-        add(new ExtendedConstant(Constants.I, "√(-1)", null));
-        add(new ExtendedConstant(new Constant(E), Math.E, null));
-        add(new ExtendedConstant(new Constant(C), C_VALUE, null));
-        add(new ExtendedConstant(new Constant(G), G_VALUE, null));
-        add(new ExtendedConstant(new Constant(H_REDUCED), H_REDUCED_VALUE, null));
-        add(new ExtendedConstant(new Constant(NAN), Double.NaN, null));
+        addAll(Arrays.<IConstant>asList(
+                new PiConstant(),
+                new ExtendedConstant(Constants.PI_INV, Math.PI, null),
+                new ExtendedConstant(Constants.INF, Double.POSITIVE_INFINITY, "JsclDouble.valueOf(Double.POSITIVE_INFINITY)"),
+                new ExtendedConstant(Constants.INF_2, Double.POSITIVE_INFINITY, "JsclDouble.valueOf(Double.POSITIVE_INFINITY)"),
+                new ExtendedConstant(Constants.I, "√(-1)", null),
+                new ExtendedConstant(new Constant(E), Math.E, null),
+                new ExtendedConstant(new Constant(C), C_VALUE, null),
+                new ExtendedConstant(new Constant(G), G_VALUE, null),
+                new ExtendedConstant(new Constant(H_REDUCED), H_REDUCED_VALUE, null),
+                new ExtendedConstant(new Constant(NAN), Double.NaN, null)));
     }
 
     public static MathRegistry<IConstant> getInstance() {
@@ -16,13 +16,11 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class CustomFunction extends Function implements IFunction {
 
-    private final static AtomicInteger counter = new AtomicInteger(0);
-
-    private final int id;
     @Nonnull
     private Expression content;
     @Nullable
@@ -30,7 +28,7 @@ public class CustomFunction extends Function implements IFunction {
     @Nonnull
     private List<String> parameterNames = Collections.emptyList();
     @Nullable
-    private List<ConstantData> parameterConstants;
+    private List<Constant> parameterConstants;
 
     private CustomFunction(@Nonnull String name,
                            @Nonnull List<String> parameterNames,
@@ -40,16 +38,15 @@ public class CustomFunction extends Function implements IFunction {
         this.parameterNames = parameterNames;
         this.content = content;
         this.description = description;
-        this.id = counter.incrementAndGet();
     }
 
     @Nonnull
-    private List<ConstantData> makeParameterConstants(@Nonnull List<String> names) {
-        return new ArrayList<>(Lists.transform(names, new com.google.common.base.Function<String, ConstantData>() {
+    private List<Constant> makeParameterConstants(@Nonnull List<String> names) {
+        return new ArrayList<>(Lists.transform(names, new com.google.common.base.Function<String, Constant>() {
             @Nullable
             @Override
-            public ConstantData apply(@Nullable String name) {
-                return new ConstantData(name);
+            public Constant apply(@Nullable String name) {
+                return new Constant(name);
             }
         }));
     }
@@ -60,24 +57,19 @@ public class CustomFunction extends Function implements IFunction {
                            @Nullable String description) throws CustomFunctionCalculationException {
         super(name, new Generic[parameterNames.size()]);
         this.parameterNames = parameterNames;
-        final JsclMathEngine engine = JsclMathEngine.getInstance();
-        final NumeralBase nb = engine.getNumeralBase();
-        if (nb != NumeralBase.dec) {
+        JsclMathEngine engine = JsclMathEngine.getInstance();
+        if (engine.getNumeralBase() != NumeralBase.dec) {
             // numbers in functions are only supported in decimal base
+            engine = engine.copy();
             engine.setNumeralBase(NumeralBase.dec);
         }
         try {
-            this.content = Expression.valueOf(content);
+            this.content = Expression.valueOf(content, engine);
             ensureNoImplicitFunctions();
         } catch (ParseException e) {
             throw new CustomFunctionCalculationException(this, e);
-        } finally {
-            if (nb != NumeralBase.dec) {
-                engine.setNumeralBase(nb);
-            }
         }
         this.description = description;
-        this.id = counter.incrementAndGet();
     }
 
     private void ensureNoImplicitFunctions() {
@@ -112,6 +104,11 @@ public class CustomFunction extends Function implements IFunction {
         return selfExpand().numeric();
     }
 
+    @Override
+    public boolean isTimeDependent() {
+        return super.isTimeDependent() || content.isTimeDependent();
+    }
+
     @Override
     public Generic expand() {
         return selfExpand().expand();
@@ -129,23 +126,24 @@ public class CustomFunction extends Function implements IFunction {
 
     @Override
     public Generic selfExpand() {
-        Generic content = this.content;
-        final List<ConstantData> parameterConstants = getParameterConstants();
-        for (ConstantData cd : parameterConstants) {
-            content = content.substitute(cd.local, cd.globalExpression);
+        // all the parameters are substituted at once, so the values don't get into each other. Operators which bind
+        // variables (e.g. Σ) rename them if they occur in the values, see Operator#substitute(Map)
+        final List<Constant> parameterConstants = getParameterConstants();
+        if (parameterConstants.isEmpty()) {
+            return content;
         }
+        final Map<Variable, Generic> substitutions = new TreeMap<>();
         for (int i = 0; i < parameterConstants.size(); i++) {
-            final ConstantData cd = parameterConstants.get(i);
-            content = content.substitute(cd.global, parameters[i]);
-        }
-        for (ConstantData cd : parameterConstants) {
-            content = content.substitute(cd.global, cd.localExpression);
+            final Constant parameter = parameterConstants.get(i);
+            if (!substitutions.containsKey(parameter)) {
+                substitutions.put(parameter, parameters[i]);
+            }
         }
-        return content;
+        return content.substitute(substitutions);
     }
 
     @Nonnull
-    private List<ConstantData> getParameterConstants() {
+    private List<Constant> getParameterConstants() {
         if(parameterConstants == null) {
             parameterConstants = makeParameterConstants(parameterNames);
         }
@@ -159,6 +157,7 @@ public class CustomFunction extends Function implements IFunction {
             final CustomFunction that = (CustomFunction) mathEntity;
             this.content = that.content;
             this.parameterNames = new ArrayList<String>(that.parameterNames);
+            this.parameterConstants = null;
             this.description = that.description;
         }
     }
@@ -253,6 +252,10 @@ public class CustomFunction extends Function implements IFunction {
         @Nonnull
         private String content;
 
+        // already parsed content, if set no parsing is done in create()
+        @Nullable
+        private Expression parsedContent;
+
         @Nullable
         private String description;
 
@@ -299,6 +302,14 @@ public class CustomFunction extends Function implements IFunction {
             this.name = name;
         }
 
+        public Builder(boolean system,
+                       @Nonnull String name,
+                       @Nonnull List<String> parameterNames,
+                       @Nonnull Expression content) {
+            this(system, name, parameterNames, content.toString());
+            this.parsedContent = content;
+        }
+
         @Nonnull
         private static String prepareContent(@Nonnull String content) {
             final StringBuilder result = new StringBuilder(content.length());
@@ -340,6 +351,18 @@ public class CustomFunction extends Function implements IFunction {
         @Nonnull
         public Builder setContent(@Nonnull String content) {
             this.content = content;
+            this.parsedContent = null;
+            return this;
+        }
+
+        /**
+         * Sets content which has already been parsed. Parameters of the function must be represented by
+         * {@link Constant}s with the same names, exactly as {@link Expression#valueOf(String)} would produce them.
+         */
+        @Nonnull
+        public Builder setContent(@Nonnull Expression content) {
+            this.content = content.toString();
+            this.parsedContent = content;
             return this;
         }
 
@@ -356,7 +379,12 @@ public class CustomFunction extends Function implements IFunction {
         }
 
         public CustomFunction create() throws CustomFunctionCalculationException {
-            final CustomFunction customFunction = new CustomFunction(name, parameterNames, prepareContent(content), description);
+            final CustomFunction customFunction;
+            if (parsedContent != null) {
+                customFunction = new CustomFunction(name, parameterNames, parsedContent, description);
+            } else {
+                customFunction = new CustomFunction(name, parameterNames, prepareContent(content), description);
+            }
             customFunction.setSystem(system);
             if (id != null) {
                 customFunction.setId(id);
@@ -364,22 +392,4 @@ public class CustomFunction extends Function implements IFunction {
             return customFunction;
         }
     }
-
-    private final class ConstantData {
-        @Nonnull
-        final Constant global;
-        @Nonnull
-        final Constant local;
-        @Nonnull
-        final Generic globalExpression;
-        @Nonnull
-        final Generic localExpression;
-
-        public ConstantData(@Nonnull String name) {
-            global = new Constant(name + "#" + id);
-            globalExpression = Expression.valueOf(global);
-            local = new Constant(name);
-            localExpression = Expression.valueOf(local);
-        }
-    }
 }
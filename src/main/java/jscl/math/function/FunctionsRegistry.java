@@ -3,6 +3,10 @@ package jscl.math.function;
 import org.solovyev.common.math.AbstractMathRegistry;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import jscl.math.Variable;
 import jscl.math.function.hyperbolic.Acosh;
@@ -52,6 +56,14 @@ public class FunctionsRegistry extends AbstractMathRegistry<Function> {
         return result;
     }
 
+    /**
+     * @return registered function itself rather than a copy of it as {@link #get(String)} returns, must not be modified
+     */
+    @Nullable
+    public Function getPrototype(@Nonnull String name) {
+        return super.get(name);
+    }
+
     @Override
     public Function get(@Nonnull String name) {
         final Function function = super.get(name);
@@ -60,43 +72,46 @@ public class FunctionsRegistry extends AbstractMathRegistry<Function> {
 
     @Override
     public void onInit() {
-        add(new Deg(null));
-        add(new Rad(null, null, null));
-        add(new Dms(null, null, null));
-
-        add(new Sin(null));
-        add(new Cos(null));
-        add(new Tan(null));
-        add(new Cot(null));
-
-        add(new Asin(null));
-        add(new Acos(null));
-        add(new Atan(null));
-        add(new Acot(null));
-
-        add(new Ln(null));
-        add(new Lg(null));
-        add(new Exp(null));
-        add(new Sqrt(null));
-        add(new Cubic(null));
-
-        add(new Sinh(null));
-        add(new Cosh(null));
-        add(new Tanh(null));
-        add(new Coth(null));
-
-        add(new Asinh(null));
-        add(new Acosh(null));
-        add(new Atanh(null));
-        add(new Acoth(null));
-
-        add(new Abs(null));
-        add(new Sgn(null));
-
-        add(new Conjugate(null));
+        final List<Function> functions = new ArrayList<>(40);
+        functions.add(new Deg(null));
+        functions.add(new Rad(null, null, null));
+        functions.add(new Dms(null, null, null));
+
+        functions.add(new Sin(null));
+        functions.add(new Cos(null));
+        functions.add(new Tan(null));
+        functions.add(new Cot(null));
+
+        functions.add(new Asin(null));
+        functions.add(new Acos(null));
+        functions.add(new Atan(null));
+        functions.add(new Acot(null));
+
+        functions.add(new Ln(null));
+        functions.add(new Lg(null));
+        functions.add(new Exp(null));
+        functions.add(new Sqrt(null));
+        functions.add(new Cubic(null));
+
+        functions.add(new Sinh(null));
+        functions.add(new Cosh(null));
+        functions.add(new Tanh(null));
+        functions.add(new Coth(null));
+
+        functions.add(new Asinh(null));
+        functions.add(new Acosh(null));
+        functions.add(new Atanh(null));
+        functions.add(new Acoth(null));
+
+        functions.add(new Abs(null));
+        functions.add(new Sgn(null));
+
+        functions.add(new Conjugate(null));
 
         for (String name : Comparison.names) {
-            add(new Comparison(name, null, null));
+            functions.add(new Comparison(name, null, null));
         }
+
+        addAll(functions);
     }
 }
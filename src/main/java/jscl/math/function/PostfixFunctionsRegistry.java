@@ -12,6 +12,8 @@ import jscl.math.operator.Factorial;
 import jscl.math.operator.Operator;
 import jscl.math.operator.Percent;
 
+import java.util.Arrays;
+
 /**
  * User: serso
  * Date: 10/31/11
@@ -46,9 +48,10 @@ public class PostfixFunctionsRegistry extends AbstractMathRegistry<Operator> {
 
     @Override
     public void onInit() {
-        add(new DoubleFactorial(null));
-        add(new Factorial(null));
-        add(new Degree(null));
-        add(new Percent(null, null));
+        addAll(Arrays.<Operator>asList(
+                new DoubleFactorial(null),
+                new Factorial(null),
+                new Degree(null),
+                new Percent(null, null)));
     }
 }
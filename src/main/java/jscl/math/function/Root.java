@@ -7,6 +7,7 @@ import jscl.mathml.MathML;
 import jscl.util.ArrayComparator;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 
 public class Root extends Algebraic {
 
@@ -203,6 +204,17 @@ public class Root extends Algebraic {
         else return v.selfExpand();
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        Root v = (Root) newInstance();
+        for (int i = 0; i < parameters.length; i++) {
+            v.parameters[i] = parameters[i].substitute(substitutions);
+        }
+        v.subscript = subscript.substitute(substitutions);
+        final Generic value = substitutions.get(v);
+        if (value != null) return value;
+        else return v.selfExpand();
+    }
+
     public Generic expand() {
         Root v = (Root) newInstance();
         for (int i = 0; i < parameters.length; i++) {
@@ -62,9 +62,17 @@ public abstract class Numeric implements Arithmetic<Numeric>, INumeric<Numeric>,
     @Nonnull
     public Numeric pow(int exponent) {
         Numeric result = ONE;
-
-        for (int i = 0; i < exponent; i++) {
-            result = result.multiply(this);
+        Numeric power = this;
+
+        // exponentiation by squaring
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = result.multiply(power);
+            }
+            exponent >>= 1;
+            if (exponent > 0) {
+                power = power.multiply(power);
+            }
         }
 
         return result;
@@ -218,7 +218,7 @@ public final class Real extends Numeric {
         return new Real(tan(defaultToRad(content)));
     }
 
-    private double tan(double value) {
+    public static double tan(double value) {
         if (value > Math.PI || value < Math.PI) {
             value = value % Math.PI;
         }
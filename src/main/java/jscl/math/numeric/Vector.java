@@ -16,6 +16,16 @@ public class Vector extends Numeric {
         n = element.length;
     }
 
+    @Nonnull
+    public static Vector valueOf(@Nonnull double[] values) {
+        final Numeric elements[] = new Numeric[values.length];
+        for (int i = 0; i < values.length; i++) {
+            // unlike Real.valueOf() keeps the sign of zero
+            elements[i] = new Real(values[i]);
+        }
+        return new Vector(elements);
+    }
+
     public static Vector unity(int dimension) {
         Vector v = new Vector(new Numeric[dimension]);
         for (int i = 0; i < v.n; i++) {
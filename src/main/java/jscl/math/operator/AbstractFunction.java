@@ -10,6 +10,7 @@ import jscl.util.ArrayComparator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -19,7 +20,9 @@ import java.util.Set;
  */
 public abstract class AbstractFunction extends Variable {
 
-    protected static final Generic UNDEFINED_PARAMETER = JsclInteger.valueOf(Long.MIN_VALUE + 1);
+    // must be neutral: parameters don't stay the same objects after numeric(), so the functions can't always tell it
+    // from the other parameters (e.g. percent of an undefined previous sum element is percent of 1)
+    protected static final Generic UNDEFINED_PARAMETER = JsclInteger.valueOf(1);
     private static final String DEFAULT_PARAMETER_NAMES = "xyzabcdefghijklmnopqrstuvw";
     protected Generic parameters[];
 
@@ -58,6 +61,21 @@ public abstract class AbstractFunction extends Variable {
 
     public abstract Generic selfExpand();
 
+    @Override
+    public boolean isTimeDependent() {
+        if (super.isTimeDependent()) {
+            return true;
+        }
+        if (parameters != null) {
+            for (Generic parameter : parameters) {
+                if (parameter != null && parameter.isTimeDependent()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public Generic expand() {
         final AbstractFunction function = newExpandedFunction();
 
@@ -225,6 +243,21 @@ public abstract class AbstractFunction extends Variable {
         }
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final AbstractFunction function = (AbstractFunction) newInstance();
+
+        for (int i = 0; i < parameters.length; i++) {
+            function.parameters[i] = parameters[i].substitute(substitutions);
+        }
+
+        final Generic value = substitutions.get(function);
+        if (value != null) {
+            return value;
+        } else {
+            return function.selfExpand();
+        }
+    }
+
     public void toMathML(MathML element, Object data) {
         int exponent = data instanceof Integer ? (Integer) data : 1;
 
@@ -63,6 +63,11 @@ public class Derivative extends Operator {
         }
     }
 
+    @Override
+    protected boolean isBinding() {
+        return true;
+    }
+
     public Generic selfExpand() {
         if (JsclMathEngine.getInstance().getAngleUnits() != AngleUnit.rad) {
             JsclMathEngine.getInstance().getMessageRegistry().addMessage(new JsclMessage(Messages.msg_25, MessageType.warning));
@@ -75,7 +80,7 @@ public class Derivative extends Operator {
             for (int i = 0; i < n; i++) {
                 a = a.derivative(variable);
             }
-            return a.substitute(variable, parameters[2]);
+            return a.substitute(substitution(variable, parameters[2]));
         } catch (NotIntegerException e) {
         }
         return expressionValue();
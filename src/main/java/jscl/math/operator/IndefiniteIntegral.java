@@ -4,6 +4,7 @@ import jscl.AngleUnit;
 import jscl.JsclMathEngine;
 import jscl.math.Generic;
 import jscl.math.NotIntegrableException;
+import jscl.math.NotVariableException;
 import jscl.math.Variable;
 import jscl.mathml.MathML;
 import jscl.text.msg.JsclMessage;
@@ -11,6 +12,8 @@ import jscl.text.msg.Messages;
 import org.solovyev.common.msg.MessageType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
 
 public class IndefiniteIntegral extends Operator {
 
@@ -30,6 +33,15 @@ public class IndefiniteIntegral extends Operator {
     }
 
     public Generic selfExpand() {
+        final Generic result = integrate();
+        return result != null ? result : expressionValue();
+    }
+
+    /**
+     * @return antiderivative of the integrand or null if it can't be found
+     */
+    @Nullable
+    private Generic integrate() {
         if (JsclMathEngine.getInstance().getAngleUnits() != AngleUnit.rad) {
             JsclMathEngine.getInstance().getMessageRegistry().addMessage(new JsclMessage(Messages.msg_24, MessageType.warning));
         }
@@ -39,7 +51,38 @@ public class IndefiniteIntegral extends Operator {
             return parameters[0].antiDerivative(variable);
         } catch (NotIntegrableException e) {
         }
-        return expressionValue();
+        return null;
+    }
+
+    @Override
+    public Generic substitute(@Nonnull Variable variable, @Nonnull Generic generic) {
+        return substitute(substitution(variable, generic));
+    }
+
+    /**
+     * Unlike the variables of other operators the variable of integration remains in the result: if it is substituted
+     * or occurs in a substituted value, the integral is taken first, e.g. ∫(x*t, t) with t for x is t^3/2
+     */
+    @Override
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Variable variable;
+        try {
+            variable = parameters[1].variableValue();
+        } catch (NotVariableException e) {
+            return super.substitute(substitutions);
+        }
+
+        boolean integrateFirst = substitutions.containsKey(variable);
+        for (Generic value : substitutions.values()) {
+            integrateFirst = integrateFirst || !value.isConstant(variable);
+        }
+        if (integrateFirst) {
+            final Generic result = integrate();
+            if (result != null) {
+                return result.substitute(substitutions);
+            }
+        }
+        return super.substitute(substitutions);
     }
 
     @Nonnull
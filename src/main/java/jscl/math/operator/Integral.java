@@ -29,6 +29,11 @@ public class Integral extends Operator {
         return 4;
     }
 
+    @Override
+    protected boolean isBinding() {
+        return true;
+    }
+
     public Generic selfExpand() {
         if (JsclMathEngine.getInstance().getAngleUnits() != AngleUnit.rad) {
             JsclMathEngine.getInstance().getMessageRegistry().addMessage(new JsclMessage(Messages.msg_24, MessageType.warning));
@@ -1,8 +1,15 @@
 package jscl.math.operator;
 
 import jscl.math.*;
+import jscl.math.function.Constant;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 public abstract class Operator extends AbstractFunction {
 
@@ -27,6 +34,127 @@ public abstract class Operator extends AbstractFunction {
         return variable;
     }
 
+    /**
+     * @return single substitution of <var>variable</var> by <var>value</var> in the form {@link #substitute(Map)} takes
+     */
+    @Nonnull
+    protected static Map<Variable, Generic> substitution(@Nonnull Variable variable, @Nonnull Generic value) {
+        final Map<Variable, Generic> result = new TreeMap<>();
+        result.put(variable, value);
+        return result;
+    }
+
+    /**
+     * @return true if the second parameter is a variable bound in the first one (e.g. the index of a sum): the variable
+     * is not substituted in the first parameter and is renamed if a substituted value contains it
+     */
+    protected boolean isBinding() {
+        return false;
+    }
+
+    /**
+     * @return variable bound by this operator (see {@link #isBinding()}) or null if there is none
+     */
+    @Nullable
+    final Variable getBoundVariable() {
+        if (!isBinding()) {
+            return null;
+        }
+        try {
+            return parameters[1].variableValue();
+        } catch (NotVariableException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Generic substitute(@Nonnull Variable variable, @Nonnull Generic generic) {
+        if (getBoundVariable() == null) {
+            return super.substitute(variable, generic);
+        }
+        return substitute(substitution(variable, generic));
+    }
+
+    @Override
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        final Variable bound = getBoundVariable();
+        if (bound == null) {
+            return super.substitute(substitutions);
+        }
+
+        // the bound variable shadows the substituted one in the first parameter...
+        Map<Variable, Generic> inner = substitutions;
+        if (substitutions.containsKey(bound)) {
+            inner = new TreeMap<>(substitutions);
+            inner.remove(bound);
+        }
+
+        // ... and is renamed if it would capture a variable of the substituted values, e.g. Σ(x*n, n, 1, m) with n
+        // for x becomes Σ(n*n', n', 1, m)
+        Generic body = parameters[0];
+        Generic variable = parameters[1];
+        if (bound instanceof Constant && isCaptured((Constant) bound, body, inner)) {
+            final Constant renamed = rename((Constant) bound, body, inner.values());
+            variable = renamed.expressionValue();
+            body = body.substitute(substitution(bound, variable));
+        }
+
+        final Operator operator = (Operator) newInstance();
+        operator.parameters[0] = inner.isEmpty() ? body : body.substitute(inner);
+        operator.parameters[1] = variable;
+        for (int i = 2; i < parameters.length; i++) {
+            operator.parameters[i] = parameters[i].substitute(substitutions);
+        }
+
+        final Generic value = substitutions.get(operator);
+        if (value != null) {
+            return value;
+        } else {
+            return operator.selfExpand();
+        }
+    }
+
+    /**
+     * @return true if <var>bound</var> occurs in the value of a variable which occurs in <var>body</var>
+     */
+    private static boolean isCaptured(@Nonnull Constant bound, @Nonnull Generic body, @Nonnull Map<Variable, Generic> substitutions) {
+        Set<? extends Constant> constants = null;
+        for (Map.Entry<Variable, Generic> substitution : substitutions.entrySet()) {
+            if (!substitution.getValue().getConstants().contains(bound)) {
+                continue;
+            }
+            if (!(substitution.getKey() instanceof Constant)) {
+                return true;
+            }
+            if (constants == null) {
+                constants = body.getConstants();
+            }
+            if (constants.contains(substitution.getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return <var>bound</var> with as few additional primes as needed to occur neither in <var>body</var> nor in
+     * <var>values</var>
+     */
+    @Nonnull
+    private static Constant rename(@Nonnull Constant bound, @Nonnull Generic body, @Nonnull Collection<Generic> values) {
+        final Set<Constant> constants = new HashSet<Constant>(body.getConstants());
+        for (Generic value : values) {
+            constants.addAll(value.getConstants());
+        }
+        int prime = bound.prime();
+        Constant result;
+        do {
+            prime++;
+            result = new Constant(bound.getName(), prime, bound.subscript());
+        } while (constants.contains(result));
+        return result;
+    }
+
     public Generic antiDerivative(Variable variable) throws NotIntegrableException {
         throw new NotIntegrableException(this);
     }
@@ -5,8 +5,11 @@ import jscl.math.JsclInteger;
 import jscl.math.NotIntegerException;
 import jscl.math.Variable;
 import jscl.mathml.MathML;
+import jscl.text.ParserUtils;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Product extends Operator {
 
@@ -25,14 +28,22 @@ public class Product extends Operator {
         return 4;
     }
 
+    @Override
+    protected boolean isBinding() {
+        return true;
+    }
+
     public Generic selfExpand() {
         Variable variable = parameters[1].variableValue();
         try {
             int n1 = parameters[2].integerValue().intValue();
             int n2 = parameters[3].integerValue().intValue();
             Generic a = JsclInteger.valueOf(1);
+            final Map<Variable, Generic> substitution = new TreeMap<>();
             for (int i = n1; i <= n2; i++) {
-                a = a.multiply(parameters[0].substitute(variable, JsclInteger.valueOf(i)));
+                ParserUtils.checkInterruption();
+                substitution.put(variable, JsclInteger.valueOf(i));
+                a = a.multiply(parameters[0].substitute(substitution));
             }
             return a;
         } catch (NotIntegerException e) {
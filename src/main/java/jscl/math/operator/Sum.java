@@ -3,10 +3,14 @@ package jscl.math.operator;
 import jscl.math.Generic;
 import jscl.math.JsclInteger;
 import jscl.math.NotIntegerException;
+import jscl.math.SumBuilder;
 import jscl.math.Variable;
 import jscl.mathml.MathML;
+import jscl.text.ParserUtils;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Sum extends Operator {
 
@@ -42,17 +46,25 @@ public class Sum extends Operator {
         }
     }
 
+    @Override
+    protected boolean isBinding() {
+        return true;
+    }
+
     public Generic selfExpand() {
         Variable variable = parameters[1].variableValue();
         try {
             int from = parameters[2].integerValue().intValue();
             int to = parameters[3].integerValue().intValue();
 
-            Generic result = JsclInteger.ZERO;
+            final SumBuilder result = new SumBuilder();
+            final Map<Variable, Generic> substitution = new TreeMap<>();
             for (int i = from; i <= to; i++) {
-                result = result.add(parameters[0].substitute(variable, JsclInteger.valueOf(i)));
+                ParserUtils.checkInterruption();
+                substitution.put(variable, JsclInteger.valueOf(i));
+                result.add(parameters[0].substitute(substitution));
             }
-            return result;
+            return result.build();
 
         } catch (NotIntegerException e) {
             // ok
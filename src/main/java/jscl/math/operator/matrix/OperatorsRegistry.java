@@ -15,6 +15,8 @@ import jscl.math.operator.Operator;
 import jscl.math.operator.Product;
 import jscl.math.operator.Sum;
 
+import java.util.Arrays;
+
 /**
  * User: serso
  * Date: 11/17/11
@@ -49,6 +51,14 @@ public class OperatorsRegistry extends AbstractMathRegistry<Operator> {
         }
     }
 
+    /**
+     * @return registered operator itself rather than a copy of it as {@link #get(String)} returns, must not be modified
+     */
+    @Nullable
+    public Operator getPrototype(@Nonnull String name) {
+        return super.get(name);
+    }
+
     @Override
     public Operator get(@Nonnull String name) {
         final Operator operator = super.get(name);
@@ -57,11 +67,12 @@ public class OperatorsRegistry extends AbstractMathRegistry<Operator> {
 
     @Override
     public void onInit() {
-        add(new Derivative(null, null, null, null));
-        add(new Sum(null, null, null, null));
-        add(new Product(null, null, null, null));
-        add(new Modulo(null, null));
-        add(new Integral(null, null, null, null));
-        add(new IndefiniteIntegral(null, null));
+        addAll(Arrays.<Operator>asList(
+                new Derivative(null, null, null, null),
+                new Sum(null, null, null, null),
+                new Product(null, null, null, null),
+                new Modulo(null, null),
+                new Integral(null, null, null, null),
+                new IndefiniteIntegral(null, null)));
     }
 }
@@ -1,8 +1,13 @@
 package jscl.math.operator.stat;
 
 import jscl.math.Generic;
+import jscl.math.JsclVector;
+import jscl.math.NumberVector;
 import jscl.math.operator.Operator;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
 /**
  * User: serso
  * Date: 1/15/12
@@ -22,4 +27,12 @@ public abstract class AbstractStatFunction extends Operator {
 
         return selfNumeric();
     }
+
+    /**
+     * @return values of the elements if <var>vector</var> consists of numbers (see {@link NumberVector}), null otherwise
+     */
+    @Nullable
+    protected static double[] getValues(@Nonnull JsclVector vector) {
+        return vector instanceof NumberVector ? ((NumberVector) vector).values() : null;
+    }
 }
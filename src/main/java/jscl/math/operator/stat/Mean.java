@@ -1,6 +1,7 @@
 package jscl.math.operator.stat;
 
 import jscl.math.*;
+import jscl.math.numeric.Real;
 import jscl.math.operator.Operator;
 
 import javax.annotation.Nonnull;
@@ -49,6 +50,18 @@ public class Mean extends AbstractStatFunction {
             } else if (elements.length == 1) {
                 return elements[0];
             } else {
+                final double[] values = getValues(vector);
+                if (values != null) {
+                    double sum = values[0];
+                    for (int i = 1; i < values.length; i++) {
+                        sum += values[i];
+                    }
+                    // Real.valueOf() loses the sign of zero, zero sum is left to the loop below
+                    if (sum != 0d) {
+                        return new NumericWrapper(Real.valueOf(sum)).divide(JsclInteger.valueOf(values.length).numeric());
+                    }
+                }
+
                 Generic result = elements[0].numeric();
                 for (int i = 1; i < elements.length; i++) {
                     result = result.add(elements[i].numeric());
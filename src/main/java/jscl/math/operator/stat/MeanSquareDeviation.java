@@ -1,6 +1,7 @@
 package jscl.math.operator.stat;
 
 import jscl.math.*;
+import jscl.math.numeric.Real;
 import jscl.math.function.Sqrt;
 import jscl.math.operator.Operator;
 
@@ -52,9 +53,21 @@ public class MeanSquareDeviation extends AbstractStatFunction {
             } else {
                 final Generic mean = new Mean(vector).numeric();
 
-                Generic result = new NumericWrapper(JsclInteger.ZERO);
-                for (int i = 0; i < elements.length; i++) {
-                    result = result.add(elements[i].numeric().subtract(mean).pow(2));
+                Generic result;
+                final double[] values = getValues(vector);
+                if (values != null) {
+                    final double meanValue = mean.doubleValue();
+                    double sum = 0d;
+                    for (double value : values) {
+                        final double deviation = value - meanValue;
+                        sum += deviation * deviation;
+                    }
+                    result = new NumericWrapper(Real.valueOf(sum));
+                } else {
+                    result = new NumericWrapper(JsclInteger.ZERO);
+                    for (int i = 0; i < elements.length; i++) {
+                        result = result.add(elements[i].numeric().subtract(mean).pow(2));
+                    }
                 }
                 return new Sqrt(result.divide(JsclInteger.valueOf(elements.length).numeric())).numeric();
             }
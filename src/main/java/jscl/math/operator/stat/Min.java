@@ -1,6 +1,7 @@
 package jscl.math.operator.stat;
 
 import jscl.math.*;
+import jscl.math.numeric.Real;
 import jscl.math.operator.Operator;
 
 import javax.annotation.Nonnull;
@@ -49,6 +50,17 @@ public class Min extends AbstractStatFunction {
             } else if (elements.length == 1) {
                 return elements[0];
             } else {
+                final double[] values = getValues(vector);
+                if (values != null) {
+                    int result = 0;
+                    for (int i = 1; i < values.length; i++) {
+                        if (Real.signum(values[result] - values[i]) < 0) {
+                            result = i;
+                        }
+                    }
+                    return elements[result].numeric();
+                }
+
                 Generic result = elements[0].numeric();
 
                 for (int i = 1; i < elements.length; i++) {
@@ -5,6 +5,7 @@ import jscl.math.function.Constant;
 import jscl.mathml.MathML;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
 import java.util.Set;
 
 class NestedPolynomial extends UnivariatePolynomial {
@@ -133,6 +134,10 @@ final class PolynomialWrapper extends Generic {
         return null;
     }
 
+    public Generic substitute(@Nonnull Map<Variable, Generic> substitutions) {
+        return null;
+    }
+
     public Generic expand() {
         return null;
     }
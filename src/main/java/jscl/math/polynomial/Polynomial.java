@@ -3,6 +3,7 @@ package jscl.math.polynomial;
 import jscl.math.*;
 import jscl.math.function.Constant;
 import jscl.mathml.MathML;
+import jscl.text.ParserUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -329,6 +330,7 @@ public abstract class Polynomial implements Arithmetic<Polynomial>, Comparable {
         Iterator it = tail ? p.iterator(p.head().monomial()) : p.iterator(true);
         loop:
         while (it.hasNext()) {
+            ParserUtils.checkInterruption();
             Term t = (Term) it.next();
             Monomial m1 = t.monomial();
             Iterator iq = ideal.iterator();
@@ -5,6 +5,7 @@ import jscl.math.polynomial.Basis;
 import jscl.math.polynomial.DegreeOrdering;
 import jscl.math.polynomial.Ordering;
 import jscl.math.polynomial.Polynomial;
+import jscl.text.ParserUtils;
 
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -22,6 +23,7 @@ class Block extends Standard {
         Debug.println("evaluate");
         int degree = 0;
         while (!pairs.isEmpty()) {
+            ParserUtils.checkInterruption();
             List list = new ArrayList();
             Iterator it = pairs.keySet().iterator();
             while (it.hasNext()) {
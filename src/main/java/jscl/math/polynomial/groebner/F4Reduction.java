@@ -5,6 +5,7 @@ import jscl.math.polynomial.Basis;
 import jscl.math.polynomial.Monomial;
 import jscl.math.polynomial.Polynomial;
 import jscl.math.polynomial.Term;
+import jscl.text.ParserUtils;
 
 import java.util.*;
 
@@ -57,6 +58,7 @@ class F4Reduction {
         head.put(scm, null);
         Iterator it = p.iterator(scm);
         while (it.hasNext()) {
+            ParserUtils.checkInterruption();
             Term t = (Term) it.next();
             Monomial m1 = t.monomial();
             if (considered.containsKey(m1)) continue;
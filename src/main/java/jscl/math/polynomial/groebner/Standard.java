@@ -6,6 +6,7 @@ import jscl.math.polynomial.Basis;
 import jscl.math.polynomial.Monomial;
 import jscl.math.polynomial.Ordering;
 import jscl.math.polynomial.Polynomial;
+import jscl.text.ParserUtils;
 import jscl.util.ArrayUtils;
 
 import java.util.*;
@@ -93,6 +94,7 @@ public class Standard {
     void compute() {
         Debug.println("evaluate");
         while (!pairs.isEmpty()) {
+            ParserUtils.checkInterruption();
             Pair pa = (Pair) pairs.keySet().iterator().next();
             process(pa);
             remove(pa);
@@ -17,6 +17,18 @@ public class BracketedExpression implements Parser<ExpressionVariable> {
 
         ParserUtils.tryToParse(p, pos0, '(');
 
+        final SubexpressionCache cache = p.subexpressions;
+        final int start = p.position.intValue() - 1;
+        final int end = cache != null ? SubexpressionCache.findClosingBracket(p.expression, start) : -1;
+        final String subexpression = end >= 0 ? p.expression.substring(start, end + 1) : null;
+        if (subexpression != null) {
+            final ExpressionVariable cached = cache.get(subexpression);
+            if (cached != null) {
+                p.position.setValue(end + 1);
+                return cached;
+            }
+        }
+
         Generic result;
         try {
             result = ExpressionParser.parser.parse(p, previousSumElement);
@@ -27,6 +39,10 @@ public class BracketedExpression implements Parser<ExpressionVariable> {
 
         ParserUtils.tryToParse(p, pos0, ')');
 
-        return new ExpressionVariable(result);
+        final ExpressionVariable variable = new ExpressionVariable(result);
+        if (subexpression != null && p.position.intValue() == end + 1) {
+            cache.put(subexpression, variable);
+        }
+        return variable;
     }
 }
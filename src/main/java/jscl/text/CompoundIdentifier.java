@@ -12,6 +12,30 @@ public class CompoundIdentifier implements Parser<String> {
     private CompoundIdentifier() {
     }
 
+    /**
+     * @return end of the compound identifier which starts at <var>start</var> or <var>start</var> if there is no
+     * identifier
+     */
+    static int end(@Nonnull String expression, int start) {
+        int end = Identifier.end(expression, start);
+        if (end == start) {
+            return start;
+        }
+        while (isDotAndIdentifierNext(expression, end)) {
+            end = Identifier.end(expression, ParserUtils.skipWhitespaces(expression, ParserUtils.skipWhitespaces(expression, end) + 1));
+        }
+        return end;
+    }
+
+    private static boolean isDotAndIdentifierNext(@Nonnull String expression, int position) {
+        position = ParserUtils.skipWhitespaces(expression, position);
+        if (position < expression.length() && expression.charAt(position) == '.') {
+            position = ParserUtils.skipWhitespaces(expression, position + 1);
+            return Identifier.end(expression, position) > position;
+        }
+        return false;
+    }
+
     @Nonnull
     public String parse(@Nonnull Parameters p, @Nullable Generic previousSumElement) throws ParseException {
         int pos0 = p.position.intValue();
@@ -28,15 +52,10 @@ public class CompoundIdentifier implements Parser<String> {
             throw e;
         }
 
-        while (true) {
-            try {
-                final String dotAndId = DotAndIdentifier.parser.parse(p, previousSumElement);
-                // NOTE: '.' must be appended after parsing
-                result.append(".").append(dotAndId);
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (isDotAndIdentifierNext(p.expression, p.position.intValue())) {
+            final String dotAndId = DotAndIdentifier.parser.parse(p, previousSumElement);
+            // NOTE: '.' must be appended after parsing
+            result.append(".").append(dotAndId);
         }
 
         return result.toString();
@@ -6,7 +6,6 @@ import jscl.util.ArrayUtils;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 public class ConstantParser implements Parser<Constant> {
@@ -17,24 +16,20 @@ public class ConstantParser implements Parser<Constant> {
     }
 
     public Constant parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
+        int pos0 = p.position.intValue();
 
         final String name = CompoundIdentifier.parser.parse(p, previousSumElement);
 
+        // subscripts and prime are parsed only if they are next, the exception of a malformed one is the error
         List<Generic> l = new ArrayList<Generic>();
-        while (true) {
-            try {
-                l.add(Subscript.parser.parse(p, previousSumElement));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (ParserUtils.lookahead(p) == '[') {
+            l.add(ParserUtils.parseWithRollback(Subscript.parser, pos0, previousSumElement, p));
         }
 
         Integer prime = 0;
-        try {
-            prime = Prime.parser.parse(p, previousSumElement);
-        } catch (ParseException e) {
-            p.exceptionsPool.release(e);
+        final char next = ParserUtils.lookahead(p);
+        if (next == '\'' || next == '{') {
+            prime = ParserUtils.parseWithRollback(Prime.parser, pos0, previousSumElement, p);
         }
 
         return new Constant(name, prime, ArrayUtils.toArray(l, new Generic[l.size()]));
@@ -45,17 +40,15 @@ class Prime implements Parser<Integer> {
 
     public static final Parser<Integer> parser = new Prime();
 
-    private static final ArrayList<Parser<? extends Integer>> parsers = new ArrayList<Parser<? extends Integer>>(Arrays.asList(
-            PrimeCharacters.parser,
-            Superscript.parser));
-
-    private static final Parser<Integer> internalParser = new MultiTryParser<Integer>(parsers);
-
     private Prime() {
     }
 
     public Integer parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
-        return internalParser.parse(p, previousSumElement);
+        // prime characters are parsed only if they are next, otherwise superscript is the only alternative
+        if (ParserUtils.lookahead(p) == '\'') {
+            return PrimeCharacters.parser.parse(p, previousSumElement);
+        }
+        return Superscript.parser.parse(p, previousSumElement);
     }
 }
 
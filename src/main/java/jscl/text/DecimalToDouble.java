@@ -0,0 +1,145 @@
+package jscl.text;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of a decimal number <code>significand * 10^exponent</code> to double which doesn't need a
+ * text representation of the number. Exactly representable operands are handled by the algorithm of Clinger, other
+ * numbers by the algorithm of Eisel and Lemire (D. Lemire, "Number Parsing at a Gigabyte per Second", 2021; N. Mushtak,
+ * D. Lemire, "Fast Number Parsing Without Fallback", 2023), the result is always the same as
+ * {@link Double#parseDouble(String)} would return.
+ */
+final class DecimalToDouble {
+
+    // any non-zero significand multiplied by 10^exponent is rounded to 0 below this exponent...
+    private static final int MIN_EXPONENT = -342;
+    // ... and to infinity above this one
+    private static final int MAX_EXPONENT = 308;
+
+    // powers of ten which are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private DecimalToDouble() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param significand non-negative significand
+     * @param exponent    decimal exponent
+     * @return <code>significand * 10^exponent</code> rounded to the nearest double (ties to even)
+     */
+    static double toDouble(long significand, int exponent) {
+        if (significand == 0 || exponent < MIN_EXPONENT) {
+            return 0d;
+        }
+        if (exponent > MAX_EXPONENT) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (significand <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+            // both operands are exact, so is the rounding of the operation
+            return exponent >= 0 ? significand * POWERS_OF_TEN[exponent] : significand / POWERS_OF_TEN[-exponent];
+        }
+        return eiselLemire(significand, exponent);
+    }
+
+    private static double eiselLemire(long significand, int exponent) {
+        final int leadingZeros = Long.numberOfLeadingZeros(significand);
+        final long w = significand << leadingZeros;
+
+        // upper 128 bits of the product of w and 5^exponent, the lower part of 5^exponent is needed only if the
+        // upper part leaves the rounding undecided
+        final long[] powersOfFive = PowersOfFive.table;
+        final int index = 2 * (exponent - MIN_EXPONENT);
+        long high = multiplyHighUnsigned(w, powersOfFive[index]);
+        long low = w * powersOfFive[index];
+        if ((high & 0x1FF) == 0x1FF) {
+            final long carry = multiplyHighUnsigned(w, powersOfFive[index + 1]);
+            low += carry;
+            if (Long.compareUnsigned(carry, low) > 0) {
+                high++;
+            }
+        }
+
+        final int upperBit = (int) (high >>> 63);
+        final int shift = upperBit + 64 - 52 - 3;
+        long mantissa = high >>> shift;
+        // floor(log2(10^exponent)) + 63 is the exponent of the power of five stored in the table
+        int power2 = ((217706 * exponent) >> 16) + 63 + upperBit - leadingZeros + 1023;
+
+        if (power2 <= 0) {
+            // subnormal number
+            if (-power2 + 1 >= 64) {
+                return 0d;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            // rounding might have produced the smallest normal number
+            power2 = mantissa < 1L << 52 ? 0 : 1;
+            return Double.longBitsToDouble((long) power2 << 52 | mantissa);
+        }
+
+        if ((low == 0 || low == 1) && exponent >= -4 && exponent <= 23 && (mantissa & 3) == 1) {
+            // exactly halfway between two doubles: round to even
+            if (mantissa << shift == high) {
+                mantissa &= ~1L;
+            }
+        }
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= 2L << 52) {
+            mantissa = 1L << 52;
+            power2++;
+        }
+        mantissa &= ~(1L << 52);
+        if (power2 >= 0x7FF) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Double.longBitsToDouble((long) power2 << 52 | mantissa);
+    }
+
+    private static long multiplyHighUnsigned(long x, long y) {
+        final long x0 = x & 0xFFFFFFFFL;
+        final long x1 = x >>> 32;
+        final long y0 = y & 0xFFFFFFFFL;
+        final long y1 = y >>> 32;
+        final long p01 = x0 * y1;
+        final long p10 = x1 * y0;
+        final long middle = ((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+
+    /**
+     * 128 bit approximations of 5^q for q from {@link #MIN_EXPONENT} to {@link #MAX_EXPONENT} normalized so that the
+     * highest bit is set: upper 64 bits at 2 * (q - MIN_EXPONENT), lower 64 bits after them. Powers with negative q
+     * are rounded up, others are truncated.
+     */
+    private static final class PowersOfFive {
+
+        static final long[] table = newTable();
+
+        private static long[] newTable() {
+            final long[] result = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+            final BigInteger five = BigInteger.valueOf(5);
+            for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+                BigInteger value;
+                if (q < 0) {
+                    final BigInteger power = five.pow(-q);
+                    final int bits = power.bitLength();
+                    value = BigInteger.ONE.shiftLeft(q >= -27 ? bits + 127 : 2 * bits + 128).divide(power).add(BigInteger.ONE);
+                    value = value.shiftRight(Math.max(0, value.bitLength() - 128));
+                } else {
+                    value = five.pow(q);
+                    value = value.bitLength() < 128 ? value.shiftLeft(128 - value.bitLength()) : value.shiftRight(value.bitLength() - 128);
+                }
+                final int index = 2 * (q - MIN_EXPONENT);
+                result[index] = value.shiftRight(64).longValue();
+                result[index + 1] = value.longValue();
+            }
+            return result;
+        }
+    }
+}
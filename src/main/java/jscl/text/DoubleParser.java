@@ -1,9 +1,6 @@
 package jscl.text;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -18,17 +15,20 @@ public class DoubleParser implements Parser<NumericWrapper> {
 
     public static final Parser<NumericWrapper> parser = new DoubleParser();
 
-    private static final List<Parser<Double>> parsers = Arrays.asList(
-            Singularity.parser,
-            FloatingPointLiteral.parser);
-
     private DoubleParser() {
     }
 
+    /**
+     * @return true if the next identifier is NaN or infinity
+     */
+    static boolean isSingularityNext(@Nonnull Parameters p) {
+        return Singularity.isNext(p);
+    }
+
     @Nonnull
     public NumericWrapper parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
-        final Parser<Double> multiTryParser = new MultiTryParser<Double>(new ArrayList<Parser<? extends Double>>(parsers));
-        return new NumericWrapper(Real.valueOf(multiTryParser.parse(p, previousSumElement)));
+        final Double value = isSingularityNext(p) ? Singularity.parser.parse(p, previousSumElement) : FloatingPointLiteral.parser.parse(p, previousSumElement);
+        return new NumericWrapper(Real.valueOf(value));
     }
 }
 
@@ -39,6 +39,16 @@ class Singularity implements Parser<Double> {
     private Singularity() {
     }
 
+    static boolean isNext(@Nonnull Parameters p) {
+        final int start = ParserUtils.skipWhitespaces(p.expression, p.position.intValue());
+        final int end = Identifier.end(p.expression, start);
+        if (end == start) {
+            return false;
+        }
+        final String s = p.expression.substring(start, end);
+        return s.equals("NaN") || s.equals("Infinity") || s.equals("∞");
+    }
+
     @Nonnull
     public Double parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
         int pos0 = p.position.intValue();
@@ -15,6 +15,9 @@ public class ExceptionsPool {
     @Nonnull
     private final List<ParseException> list = new ArrayList<>();
 
+    // number of exceptions obtained from this pool, valid expressions are expected to be parsed without any
+    private int obtained;
+
     @Nonnull
     public ParseException obtain(int position, @Nonnull String expression, @Nonnull String messageCode) {
         return obtain(position, expression, messageCode, Collections.emptyList());
@@ -27,11 +30,16 @@ public class ExceptionsPool {
 
     @Nonnull
     public ParseException obtain(int position, @Nonnull String expression, @Nonnull String messageCode, @Nonnull List<?> messagesArgs) {
+        obtained++;
         final ParseException exception = !list.isEmpty() ? list.remove(list.size() - 1) : new ParseException();
         exception.set(position, expression, messageCode, messagesArgs);
         return exception;
     }
 
+    int getObtained() {
+        return obtained;
+    }
+
     public void release(@Nonnull ParseException e) {
         if (list.size() >= MAX_COUNT) {
             return;
@@ -1,6 +1,8 @@
 package jscl.text;
 
 import jscl.math.Generic;
+import jscl.math.SumBuilder;
+import jscl.math.operator.Percent;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -21,13 +23,18 @@ public class ExpressionParser implements Parser<Generic> {
             result = result.negate();
         }
 
-        while (true) {
-            try {
+        if (p.expression.indexOf(Percent.NAME, p.position.intValue()) >= 0) {
+            // percent needs the sum of the previous terms, so the sum is built term by term
+            while (PlusOrMinusTerm.isNext(p)) {
                 result = result.add(PlusOrMinusTerm.parser.parse(p, result));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
             }
+        } else if (PlusOrMinusTerm.isNext(p)) {
+            // a term must follow the sign, so the exception of the term (if any) is the error of the expression
+            final SumBuilder sum = new SumBuilder(result);
+            do {
+                sum.add(PlusOrMinusTerm.parser.parse(p, null));
+            } while (PlusOrMinusTerm.isNext(p));
+            result = sum.build();
         }
 
         return result;
@@ -17,15 +17,33 @@ public class Identifier implements Parser<String> {
     private Identifier() {
     }
 
-    private static boolean isValidFirstCharacter(char ch) {
+    static boolean isValidFirstCharacter(char ch) {
         return Character.isLetter(ch) || allowedCharacters.contains(ch);
     }
 
     private static boolean isValidNotFirstCharacter(@Nonnull String string, @Nonnull MutableInt position) {
-        final char ch = string.charAt(position.intValue());
+        return isValidNotFirstCharacter(string.charAt(position.intValue()));
+    }
+
+    private static boolean isValidNotFirstCharacter(char ch) {
         return Character.isLetter(ch) || Character.isDigit(ch) || ch == '_';
     }
 
+    /**
+     * @return end of the identifier which starts at <var>start</var> (whitespaces are not skipped) or <var>start</var>
+     * if there is no identifier
+     */
+    static int end(@Nonnull String expression, int start) {
+        if (start >= expression.length() || !isValidFirstCharacter(expression.charAt(start))) {
+            return start;
+        }
+        int end = start + 1;
+        while (end < expression.length() && isValidNotFirstCharacter(expression.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
     // returns getVariable/constant getName
     @Nonnull
     public String parse(@Nonnull Parameters p, @Nullable Generic previousSumElement) throws ParseException {
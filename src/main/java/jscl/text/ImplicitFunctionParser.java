@@ -24,27 +24,20 @@ public class ImplicitFunctionParser implements Parser<Function> {
         Generic a[];
 
         final String name = ParserUtils.parseWithRollback(CompoundIdentifier.parser, pos0, previousSumElement, p);
-        if (FunctionsRegistry.getInstance().getNames().contains(name) || OperatorsRegistry.getInstance().getNames().contains(name)) {
+        if (FunctionsRegistry.getInstance().contains(name) || OperatorsRegistry.getInstance().contains(name)) {
             p.position.setValue(pos0);
             throw p.exceptionsPool.obtain(p.position.intValue(), p.expression, Messages.msg_6, Collections.singletonList(name));
         }
 
         final List<Generic> subscripts = new ArrayList<Generic>();
-        while (true) {
-            try {
-                subscripts.add(Subscript.parser.parse(p, previousSumElement));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (ParserUtils.lookahead(p) == '[') {
+            subscripts.add(ParserUtils.parseWithRollback(Subscript.parser, pos0, previousSumElement, p));
         }
 
-        int b[];
-        try {
-            b = Derivation.parser.parse(p, previousSumElement);
-        } catch (ParseException e) {
-            p.exceptionsPool.release(e);
-            b = new int[0];
+        int b[] = new int[0];
+        final char next = ParserUtils.lookahead(p);
+        if (next == '\'' || next == '{') {
+            b = ParserUtils.parseWithRollback(Derivation.parser, pos0, previousSumElement, p);
         }
         try {
             a = ParameterListParser.parser1.parse(p, previousSumElement);
@@ -70,10 +63,8 @@ class Derivation implements Parser<int[]> {
     }
 
     public int[] parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
-        try {
+        if (ParserUtils.lookahead(p) == '\'') {
             return new int[]{PrimeCharacters.parser.parse(p, previousSumElement)};
-        } catch (ParseException e) {
-            p.exceptionsPool.release(e);
         }
         return SuperscriptList.parser.parse(p, previousSumElement);
     }
@@ -99,13 +90,9 @@ class SuperscriptList implements Parser<int[]> {
             throw e;
         }
 
-        while (true) {
-            try {
-                result.add(CommaAndInteger.parser.parse(p, previousSumElement));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        // integers are separated by whitespaces, anything else before '}' must be an integer
+        while (ParserUtils.lookahead(p) != '}') {
+            result.add(ParserUtils.parseWithRollback(CommaAndInteger.parser, pos0, previousSumElement, p));
         }
 
         ParserUtils.tryToParse(p, pos0, '}');
@@ -16,6 +16,41 @@ public class MatrixParser implements Parser<Matrix> {
     private MatrixParser() {
     }
 
+    /**
+     * @return true if the vector which starts at the current position consists of bracketed lists only, i.e. it should
+     * be parsed as a matrix rather than as a vector of vectors
+     */
+    static boolean isNext(@Nonnull Parameters p) {
+        final String expression = p.expression;
+        int position = ParserUtils.skipWhitespaces(expression, p.position.intValue());
+        if (position >= expression.length() || expression.charAt(position) != '[') {
+            return false;
+        }
+        position++;
+        while (true) {
+            position = ParserUtils.skipWhitespaces(expression, position);
+            if (position >= expression.length() || expression.charAt(position) != '[') {
+                return false;
+            }
+            position = ParserUtils.skipBrackets(expression, position);
+            if (position < 0) {
+                return false;
+            }
+            position = ParserUtils.skipWhitespaces(expression, position);
+            if (position >= expression.length()) {
+                return false;
+            }
+            final char c = expression.charAt(position);
+            if (c == ']') {
+                return true;
+            }
+            if (c != ',') {
+                return false;
+            }
+            position++;
+        }
+    }
+
     public Matrix parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
         int pos0 = p.position.intValue();
 
@@ -30,13 +65,8 @@ public class MatrixParser implements Parser<Matrix> {
             throw e;
         }
 
-        while (true) {
-            try {
-                vectors.add(CommaAndVector.parser.parse(p, previousSumElement));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (ParserUtils.lookahead(p) == ',') {
+            vectors.add(ParserUtils.parseWithRollback(CommaAndVector.parser, pos0, previousSumElement, p));
         }
 
         ParserUtils.tryToParse(p, pos0, ']');
@@ -0,0 +1,182 @@
+package jscl.text;
+
+import jscl.NumeralBase;
+import jscl.math.DoubleVariable;
+import jscl.math.Generic;
+import jscl.math.JsclInteger;
+import jscl.math.NumericWrapper;
+import jscl.math.numeric.Real;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Parses integers and decimal fractions (with an optional exponent) by looking ahead at the characters, the result is
+ * the same as {@link DoubleVariableParser} and {@link JsclIntegerParser} tried one after another would produce but no
+ * exception is thrown if a number turns out to be an integer.
+ * <p/>
+ * Numbers which are not written in the usual way are left to {@link DoubleVariableParser}: they are either doubles
+ * (e.g. with a long exponent) or errors (e.g. fractions in other numeral bases) which it reports.
+ */
+class NumberParser implements Parser<Generic> {
+
+    public static final Parser<Generic> parser = new NumberParser();
+
+    private NumberParser() {
+    }
+
+    static boolean isNumberStart(@Nonnull Parameters p, char c) {
+        return c == '.' || p.context.getNumeralBase().digit(c) >= 0;
+    }
+
+    /**
+     * Parses a number in place: digits are accumulated into a significand and a decimal exponent without creating
+     * strings. Doubles are then converted by {@link DecimalToDouble}, text is used only for integers which don't fit
+     * into long and for doubles with too many significant digits which {@link DecimalToDouble} can't round.
+     *
+     * @return number or null if it should be parsed by {@link DoubleVariableParser}, in the latter case position is not
+     * changed
+     */
+    @Nullable
+    public Generic parse(@Nonnull Parameters p, @Nullable Generic previousSumElement) {
+        return parse(p, null, 0);
+    }
+
+    /**
+     * Same as {@link #parse(Parameters, Generic)}, the value of the number is also stored as double in
+     * <code>values[index]</code> if <var>values</var> is not null
+     */
+    @Nullable
+    static Generic parse(@Nonnull Parameters p, @Nullable double[] values, int index) {
+        final String expression = p.expression;
+        int position = ParserUtils.skipWhitespaces(expression, p.position.intValue());
+
+        NumeralBase nb = NumeralBaseParser.getByPrefix(expression, position);
+        if (nb != null) {
+            position = ParserUtils.skipWhitespaces(expression, position + nb.getJsclPrefix().length());
+        } else {
+            nb = p.context.getNumeralBase();
+        }
+
+        // number = significand * 10^exponent (or just significand for integers). Digits which don't fit into the
+        // significand are dropped and the number stays exact only if all of them are zeros
+        final int radix = nb.radix;
+        final long maxSignificand = (Long.MAX_VALUE - radix + 1) / radix;
+        long significand = 0;
+        int exponent = 0;
+        boolean exact = true;
+
+        // whitespaces between the parts of a number are skipped in the same places as FloatingPointLiteral does it
+        final int integerStart = position;
+        int integerEnd = integerStart;
+        for (int digit; integerEnd < expression.length() && (digit = nb.digit(expression.charAt(integerEnd))) >= 0; integerEnd++) {
+            if (significand <= maxSignificand) {
+                significand = significand * radix + digit;
+            } else {
+                exponent++;
+                exact &= digit == 0;
+            }
+        }
+        int end = integerEnd;
+
+        boolean point = false;
+        int fractionStart = 0;
+        int fractionEnd = 0;
+        final int pointPosition = ParserUtils.skipWhitespaces(expression, integerEnd);
+        if (pointPosition < expression.length() && expression.charAt(pointPosition) == '.') {
+            if (nb != NumeralBase.dec) {
+                return null;
+            }
+            point = true;
+            fractionStart = ParserUtils.skipWhitespaces(expression, pointPosition + 1);
+            fractionEnd = fractionStart;
+            for (int digit; fractionEnd < expression.length() && (digit = nb.digit(expression.charAt(fractionEnd))) >= 0; fractionEnd++) {
+                if (significand <= maxSignificand) {
+                    significand = significand * radix + digit;
+                    exponent--;
+                } else {
+                    exact &= digit == 0;
+                }
+            }
+            if (fractionEnd > fractionStart) {
+                end = fractionEnd;
+            } else if (integerEnd > integerStart) {
+                end = pointPosition + 1;
+            } else {
+                return null;
+            }
+        } else if (integerEnd == integerStart || (pointPosition < expression.length() && nb.digit(expression.charAt(pointPosition)) >= 0)) {
+            // FloatingPointLiteral joins digits separated by whitespaces if there is no point
+            return null;
+        }
+
+        boolean hasExponent = false;
+        int explicitExponent = 0;
+        final int exponentPosition = ParserUtils.skipWhitespaces(expression, end);
+        if (exponentPosition < expression.length() && (expression.charAt(exponentPosition) == 'e' || expression.charAt(exponentPosition) == 'E')) {
+            if (nb != NumeralBase.dec || p.context.getNumeralBase() != NumeralBase.dec) {
+                return null;
+            }
+            int signEnd = ParserUtils.skipWhitespaces(expression, exponentPosition + 1);
+            final boolean sign = signEnd < expression.length() && (expression.charAt(signEnd) == '+' || MinusParser.isMinus(expression.charAt(signEnd)));
+            if (sign) {
+                if (expression.charAt(signEnd) != '+' && expression.charAt(signEnd) != '-') {
+                    // Double.parseDouble doesn't accept other minus signs, FloatingPointLiteral reports an error
+                    return null;
+                }
+                signEnd++;
+            }
+            final int exponentStart = ParserUtils.skipWhitespaces(expression, signEnd);
+            if (NumeralBaseParser.getByPrefix(expression, exponentStart) != null) {
+                return null;
+            }
+            int exponentEnd = exponentStart;
+            for (int digit; exponentEnd < expression.length() && (digit = nb.digit(expression.charAt(exponentEnd))) >= 0; exponentEnd++) {
+                if (exponentEnd - exponentStart == 9) {
+                    // might not fit into int
+                    return null;
+                }
+                explicitExponent = explicitExponent * 10 + digit;
+            }
+            if (exponentEnd > exponentStart) {
+                if (sign && expression.charAt(signEnd - 1) == '-') {
+                    explicitExponent = -explicitExponent;
+                }
+                hasExponent = true;
+                end = exponentEnd;
+            }
+        }
+
+        final Generic result;
+        if (!point && !hasExponent) {
+            // exponent is not 0 if some of the digits were dropped
+            final JsclInteger integer = exponent == 0 ? JsclInteger.valueOf(significand) : new JsclInteger(nb.toBigInteger(expression.substring(integerStart, integerEnd)));
+            if (values != null) {
+                values[index] = integer.doubleValue();
+            }
+            result = integer;
+        } else {
+            double value = DecimalToDouble.toDouble(significand, exponent + explicitExponent);
+            if (!exact && value != DecimalToDouble.toDouble(significand + 1, exponent + explicitExponent)) {
+                // dropped digits affect rounding
+                final StringBuilder doubleString = new StringBuilder(end - integerStart);
+                doubleString.append(expression, integerStart, integerEnd);
+                if (point) {
+                    doubleString.append('.').append(expression, fractionStart, fractionEnd);
+                }
+                doubleString.append('e').append(explicitExponent);
+                try {
+                    value = nb.toDouble(doubleString.toString());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            if (values != null) {
+                values[index] = value;
+            }
+            result = new DoubleVariable(new NumericWrapper(Real.valueOf(value))).expressionValue();
+        }
+        p.position.setValue(end);
+        return result;
+    }
+}
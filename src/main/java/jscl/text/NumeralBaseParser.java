@@ -13,25 +13,28 @@ public class NumeralBaseParser implements Parser<NumeralBase> {
     private NumeralBaseParser() {
     }
 
-    public NumeralBase parse(@Nonnull Parameters p, @Nullable Generic previousSumElement) {
-        int pos0 = p.position.intValue();
-
-        NumeralBase result = p.context.getNumeralBase();
-
-        ParserUtils.skipWhitespaces(p);
-
+    /**
+     * @return numeral base which jscl prefix starts at <var>position</var>, null if there is no prefix
+     */
+    @Nullable
+    static NumeralBase getByPrefix(@Nonnull String expression, int position) {
         for (NumeralBase numeralBase : NumeralBase.values()) {
-            try {
-                final String jsclPrefix = numeralBase.getJsclPrefix();
-                ParserUtils.tryToParse(p, pos0, jsclPrefix);
-                result = numeralBase;
-                break;
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
+            if (expression.startsWith(numeralBase.getJsclPrefix(), position)) {
+                return numeralBase;
             }
         }
+        return null;
+    }
+
+    public NumeralBase parse(@Nonnull Parameters p, @Nullable Generic previousSumElement) {
+        final int position = ParserUtils.skipWhitespaces(p.expression, p.position.intValue());
 
+        final NumeralBase result = getByPrefix(p.expression, position);
+        if (result == null) {
+            return p.context.getNumeralBase();
+        }
 
+        p.position.setValue(position + result.getJsclPrefix().length());
         return result;
     }
 }
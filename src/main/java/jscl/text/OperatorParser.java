@@ -16,7 +16,7 @@ public class OperatorParser implements Parser<Operator> {
     }
 
     static boolean valid(@Nullable String name) {
-        return name != null && OperatorsRegistry.getInstance().getNames().contains(name);
+        return name != null && OperatorsRegistry.getInstance().contains(name);
     }
 
     @Nonnull
@@ -28,14 +28,15 @@ public class OperatorParser implements Parser<Operator> {
             ParserUtils.throwParseException(p, pos0, Messages.msg_3, operatorName);
         }
 
-        final Operator operator = OperatorsRegistry.getInstance().get(operatorName);
+        final Operator operator = OperatorsRegistry.getInstance().getPrototype(operatorName);
 
         Operator result = null;
         if (operator != null) {
             final Generic parameters[] = ParserUtils.parseWithRollback(new ParameterListParser(operator.getMinParameters()), pos0, previousSumElement, p);
 
-            result = OperatorsRegistry.getInstance().get(operatorName, parameters);
-            if (result == null) {
+            if (operator.getMinParameters() <= parameters.length && operator.getMaxParameters() >= parameters.length) {
+                result = operator.newInstance(parameters);
+            } else {
                 ParserUtils.throwParseException(p, pos0, Messages.msg_2, operatorName);
             }
         } else {
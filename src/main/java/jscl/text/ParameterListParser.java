@@ -28,24 +28,13 @@ public class ParameterListParser implements Parser<Generic[]> {
 
         ParserUtils.tryToParse(p, pos0, '(');
 
-        try {
-            result.add(ExpressionParser.parser.parse(p, previousSumElement));
-        } catch (ParseException e) {
-            if (minNumberOfParameters > 0) {
-                p.position.setValue(pos0);
-                throw e;
-            } else {
-                p.exceptionsPool.release(e);
-            }
+        // empty list is not parsed as an expression if it is allowed
+        if (minNumberOfParameters > 0 || ParserUtils.lookahead(p) != ')') {
+            result.add(ParserUtils.parseWithRollback(ExpressionParser.parser, pos0, previousSumElement, p));
         }
 
-        while (true) {
-            try {
-                result.add(CommaAndExpression.parser.parse(p, previousSumElement));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (ParserUtils.lookahead(p) == ',') {
+            result.add(ParserUtils.parseWithRollback(CommaAndExpression.parser, pos0, previousSumElement, p));
         }
 
         ParserUtils.tryToParse(p, pos0, ')');
@@ -0,0 +1,95 @@
+package jscl.text;
+
+import jscl.NumeralBase;
+import jscl.math.Expression;
+import org.solovyev.common.collections.LruCache;
+import org.solovyev.common.math.AbstractMathRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * LRU cache of successfully parsed expressions.
+ * <p/>
+ * Result of parsing depends on the input string, on the numeral base and on the names registered in the math
+ * registries, so all of them are part of the key ({@link AbstractMathRegistry#getGeneration()} is used for the
+ * latter). Cached expressions are shared between callers and must not be modified: all operations on
+ * {@link jscl.math.Generic} create new objects and functions are copied out of the registries on parsing.
+ */
+public final class ParseCache {
+
+    private static final int MAX_SIZE = 100;
+
+    @Nonnull
+    private static final ParseCache instance = new ParseCache(MAX_SIZE);
+
+    @Nonnull
+    private final LruCache<Key, Expression> expressions;
+
+    ParseCache(int maxSize) {
+        this.expressions = new LruCache<>(maxSize);
+    }
+
+    @Nonnull
+    public static ParseCache getInstance() {
+        return instance;
+    }
+
+    @Nullable
+    public Expression get(@Nonnull String expression, @Nonnull NumeralBase numeralBase) {
+        return expressions.get(new Key(expression, numeralBase, AbstractMathRegistry.getGeneration()));
+    }
+
+    public void put(@Nonnull String expression, @Nonnull NumeralBase numeralBase, int generation, @Nonnull Expression result) {
+        expressions.put(new Key(expression, numeralBase, generation), result);
+    }
+
+    public long getHits() {
+        return expressions.getHits();
+    }
+
+    public long getMisses() {
+        return expressions.getMisses();
+    }
+
+    public int getSize() {
+        return expressions.getSize();
+    }
+
+    public void clear() {
+        expressions.clear();
+    }
+
+    private static final class Key {
+        @Nonnull
+        private final String expression;
+        @Nonnull
+        private final NumeralBase numeralBase;
+        private final int generation;
+
+        private Key(@Nonnull String expression, @Nonnull NumeralBase numeralBase, int generation) {
+            this.expression = expression;
+            this.numeralBase = numeralBase;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key that = (Key) o;
+            return generation == that.generation
+                    && numeralBase == that.numeralBase
+                    && expression.equals(that.expression);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = expression.hashCode();
+            result = 31 * result + numeralBase.hashCode();
+            result = 31 * result + generation;
+            return result;
+        }
+    }
+}
@@ -47,11 +47,15 @@ public interface Parser<T> {
         public final List<ParseException> exceptions = new ArrayList<ParseException>();
 
         @Nonnull
-        public final MathContext context;
+        public MathContext context;
 
         @Nonnull
         public final ExceptionsPool exceptionsPool = new ExceptionsPool();
 
+        // results of the previous parses, see SubexpressionCache
+        @Nullable
+        public SubexpressionCache subexpressions;
+
         /**
          * @param expression  expression to be parsed
          * @param context math engine to be used in parsing
@@ -63,8 +67,23 @@ public interface Parser<T> {
 
         @Nonnull
         public static Parameters get(@Nonnull String expression) {
+            return get(expression, JsclMathEngine.getInstance());
+        }
+
+        @Nonnull
+        public static Parameters get(@Nonnull String expression, @Nonnull MathContext context) {
+            return get(expression, context, null);
+        }
+
+        @Nonnull
+        public static Parameters get(@Nonnull String expression, @Nonnull MathContext context, @Nullable SubexpressionCache subexpressions) {
             final Parameters parameters = instance.get();
             parameters.expression = expression;
+            parameters.context = context;
+            parameters.subexpressions = subexpressions;
+            if (subexpressions != null) {
+                subexpressions.validate(context.getNumeralBase());
+            }
             parameters.reset();
             return parameters;
         }
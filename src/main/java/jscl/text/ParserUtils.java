@@ -1,5 +1,6 @@
 package jscl.text;
 
+import jscl.JsclMathEngine;
 import jscl.math.Generic;
 import jscl.text.msg.Messages;
 
@@ -19,6 +20,7 @@ public class ParserUtils {
         if (Thread.currentThread().isInterrupted()) {
             throw new ParseInterruptedException("Interrupted!");
         }
+        JsclMathEngine.checkCancelled();
     }
 
     public static void skipWhitespaces(@Nonnull Parser.Parameters p) {
@@ -30,6 +32,48 @@ public class ParserUtils {
         }
     }
 
+    /**
+     * @return index of the first non-whitespace character at or after <var>position</var>
+     */
+    static int skipWhitespaces(@Nonnull String expression, int position) {
+        while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Lookahead used to choose between productions without trying (and failing) to parse them. Position is not changed.
+     *
+     * @return next non-whitespace character or 0 if the end of the expression is reached
+     */
+    static char lookahead(@Nonnull Parser.Parameters p) {
+        final int position = skipWhitespaces(p.expression, p.position.intValue());
+        return position < p.expression.length() ? p.expression.charAt(position) : 0;
+    }
+
+    /**
+     * Skips brackets of any kind (and everything inside them) without parsing.
+     *
+     * @param position position of an opening bracket
+     * @return position after the matching closing bracket or -1 if the brackets are not closed
+     */
+    static int skipBrackets(@Nonnull String expression, int position) {
+        int depth = 0;
+        for (; position < expression.length(); position++) {
+            final char c = expression.charAt(position);
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+                if (depth == 0) {
+                    return position + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
     public static void tryToParse(@Nonnull Parser.Parameters p,
                                   int pos0,
                                   char ch) throws ParseException {
@@ -17,6 +17,11 @@ class PlusOrMinusTerm implements Parser<Generic> {
     private PlusOrMinusTerm() {
     }
 
+    static boolean isNext(@Nonnull Parameters p) {
+        final char c = ParserUtils.lookahead(p);
+        return c == '+' || MinusParser.isMinus(c);
+    }
+
     public Generic parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
         final int pos0 = p.position.intValue();
 
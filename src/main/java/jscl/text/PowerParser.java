@@ -40,7 +40,12 @@ class PowerParser implements Parser<Void> {
         return null;
     }
 
-    private boolean isDoubleStar(@Nonnull String string, int position) {
+    static boolean isNext(@Nonnull Parameters p) {
+        final int position = ParserUtils.skipWhitespaces(p.expression, p.position.intValue());
+        return (position < p.expression.length() && p.expression.charAt(position) == '^') || isDoubleStar(p.expression, position);
+    }
+
+    private static boolean isDoubleStar(@Nonnull String string, int position) {
         return position + 1 < string.length() && isMultiplication(string.charAt(position)) && isMultiplication(string.charAt(position + 1));
     }
 }
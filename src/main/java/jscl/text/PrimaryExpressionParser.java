@@ -5,9 +5,6 @@ import jscl.math.Generic;
 import jscl.math.Variable;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * User: serso
@@ -18,20 +15,36 @@ public class PrimaryExpressionParser implements Parser<Generic> {
 
     public static final Parser<Generic> parser = new PrimaryExpressionParser();
 
-    private static final List<Parser<? extends Generic>> parsers = Arrays.asList(
-            new VariableConverter<Variable>(DoubleVariableParser.parser),
-            JsclIntegerParser.parser,
-            new VariableConverter<Variable>(VariableParser.parser),
-            new VariableConverter<Variable>(MatrixVariableParser.parser),
-            new VariableConverter<Variable>(VectorVariableParser.parser),
-            new VariableConverter<ExpressionVariable>(BracketedExpression.parser));
-
-    private static final Parser<Generic> internalParser = new MultiTryParser<Generic>(new ArrayList<Parser<? extends Generic>>(parsers));
+    private static final Parser<Generic> doubleParser = new VariableConverter<Variable>(DoubleVariableParser.parser);
+    private static final Parser<Generic> variableParser = new VariableConverter<Variable>(VariableParser.parser);
+    private static final Parser<Generic> matrixParser = new VariableConverter<Variable>(MatrixVariableParser.parser);
+    private static final Parser<Generic> vectorParser = new VariableConverter<Variable>(VectorVariableParser.parser);
+    private static final Parser<Generic> bracketedExpressionParser = new VariableConverter<ExpressionVariable>(BracketedExpression.parser);
 
     private PrimaryExpressionParser() {
     }
 
     public Generic parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
-        return internalParser.parse(p, previousSumElement);
+        // the alternative is chosen by looking ahead, the exception of the chosen one is the error of the expression.
+        // If no alternative can start with the next character BracketedExpression reports the error
+        final char c = ParserUtils.lookahead(p);
+        if (c == '(') {
+            return bracketedExpressionParser.parse(p, previousSumElement);
+        }
+        if (c == '[') {
+            return MatrixParser.isNext(p) ? matrixParser.parse(p, previousSumElement) : vectorParser.parse(p, previousSumElement);
+        }
+        if (Identifier.isValidFirstCharacter(c) && DoubleParser.isSingularityNext(p)) {
+            return doubleParser.parse(p, previousSumElement);
+        }
+        if (NumberParser.isNumberStart(p, c)) {
+            final Generic result = NumberParser.parser.parse(p, previousSumElement);
+            // a number which NumberParser can't scan is valid only if it is a double (e.g. with a long exponent)
+            return result != null ? result : doubleParser.parse(p, previousSumElement);
+        }
+        if (Identifier.isValidFirstCharacter(c)) {
+            return variableParser.parse(p, previousSumElement);
+        }
+        return bracketedExpressionParser.parse(p, previousSumElement);
     }
 }
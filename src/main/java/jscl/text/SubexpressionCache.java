@@ -0,0 +1,86 @@
+package jscl.text;
+
+import jscl.NumeralBase;
+import jscl.math.ExpressionVariable;
+import jscl.math.operator.Percent;
+import org.solovyev.common.collections.LruCache;
+import org.solovyev.common.math.AbstractMathRegistry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the results of {@link BracketedExpression} between parses so that only the changed part of an expression
+ * is parsed again when the user edits it (e.g. typing at the end of a long expression doesn't reparse the
+ * brackets typed before).
+ * <p/>
+ * Entries are keyed by the text of the bracketed expression (including brackets) and dropped when numeral base
+ * or registries change. Bracketed expressions containing percents are not cached as their value depends on the
+ * text to the left of them.
+ */
+public final class SubexpressionCache {
+
+    private static final int MAX_SIZE = 256;
+
+    @Nonnull
+    private final LruCache<String, ExpressionVariable> subexpressions = new LruCache<>(MAX_SIZE);
+
+    @Nullable
+    private NumeralBase numeralBase;
+
+    private int generation = -1;
+
+    /**
+     * Must be called before each parse
+     */
+    synchronized void validate(@Nonnull NumeralBase numeralBase) {
+        final int generation = AbstractMathRegistry.getGeneration();
+        if (this.numeralBase != numeralBase || this.generation != generation) {
+            subexpressions.clear();
+            this.numeralBase = numeralBase;
+            this.generation = generation;
+        }
+    }
+
+    @Nullable
+    ExpressionVariable get(@Nonnull String subexpression) {
+        return subexpressions.get(subexpression);
+    }
+
+    void put(@Nonnull String subexpression, @Nonnull ExpressionVariable result) {
+        if (!subexpression.contains(Percent.NAME)) {
+            subexpressions.put(subexpression, result);
+        }
+    }
+
+    /**
+     * @return position of the bracket closing the bracket at <var>start</var> or -1 if there is no such bracket
+     */
+    static int findClosingBracket(@Nonnull String expression, int start) {
+        int depth = 0;
+        for (int i = start; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public long getHits() {
+        return subexpressions.getHits();
+    }
+
+    public long getMisses() {
+        return subexpressions.getMisses();
+    }
+
+    public void clear() {
+        subexpressions.clear();
+    }
+}
@@ -26,22 +26,21 @@ class TermParser implements Parser<Generic> {
         Generic s = (Generic) UnsignedFactor.parser.parse(p, previousSumElement);
 
         while (true) {
-            try {
+            // only the operator which is next is parsed, a factor must follow it. The loop ends without an exception if
+            // there is no operator
+            final char next = ParserUtils.lookahead(p);
+            if (MultiplyFactor.isMultiplication(next)) {
                 Generic b = MultiplyFactor.parser.parse(p, null);
                 result = result.multiply(s);
                 s = b;
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                try {
-                    Generic b = DivideFactor.parser.parse(p, null);
-                    if (s.compareTo(JsclInteger.valueOf(1)) == 0)
-                        s = new Inverse(GenericVariable.content(b, true)).expressionValue();
-                    else
-                        s = new Fraction(GenericVariable.content(s, true), GenericVariable.content(b, true)).expressionValue();
-                } catch (ParseException e2) {
-                    p.exceptionsPool.release(e2);
-                    break;
-                }
+            } else if (next == '/') {
+                Generic b = DivideFactor.parser.parse(p, null);
+                if (s.compareTo(JsclInteger.valueOf(1)) == 0)
+                    s = new Inverse(GenericVariable.content(b, true)).expressionValue();
+                else
+                    s = new Fraction(GenericVariable.content(s, true), GenericVariable.content(b, true)).expressionValue();
+            } else {
+                break;
             }
         }
 
@@ -29,13 +29,8 @@ class UnsignedFactor implements Parser {
 
         list.add(generic);
 
-        while (true) {
-            try {
-                list.add(PowerExponentParser.parser.parse(p, null));
-            } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
-            }
+        while (PowerParser.isNext(p)) {
+            list.add(PowerExponentParser.parser.parse(p, null));
         }
 
         final ListIterator<Generic> it = list.listIterator(list.size());
@@ -4,7 +4,6 @@ import jscl.math.Generic;
 import jscl.math.function.Function;
 import jscl.math.function.FunctionsRegistry;
 import jscl.text.msg.Messages;
-import org.solovyev.common.math.MathRegistry;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -18,13 +17,11 @@ class UsualFunctionParser implements Parser<Function> {
 
     public static final Parser<Function> parser = new UsualFunctionParser();
 
-    private MathRegistry<Function> functionsRegistry = FunctionsRegistry.getInstance();
-
     private UsualFunctionParser() {
     }
 
     static boolean valid(@Nullable String name) {
-        return name != null && FunctionsRegistry.getInstance().getNames().contains(name);
+        return name != null && FunctionsRegistry.getInstance().contains(name);
     }
 
     public Function parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
@@ -36,12 +33,15 @@ class UsualFunctionParser implements Parser<Function> {
             ParserUtils.throwParseException(p, pos0, Messages.msg_13);
         }
 
-        final Function result = functionsRegistry.get(name);
+        // the registered function is copied only after its parameters are parsed
+        final Function function = FunctionsRegistry.getInstance().getPrototype(name);
 
-        if (result != null) {
-            final Generic parameters[] = ParserUtils.parseWithRollback(new ParameterListParser(result.getMinParameters()), pos0, previousSumElement, p);
+        Function result = null;
+        if (function != null) {
+            final Generic parameters[] = ParserUtils.parseWithRollback(new ParameterListParser(function.getMinParameters()), pos0, previousSumElement, p);
 
-            if (result.getMinParameters() <= parameters.length && result.getMaxParameters() >= parameters.length) {
+            if (function.getMinParameters() <= parameters.length && function.getMaxParameters() >= parameters.length) {
+                result = FunctionsRegistry.copy(function);
                 result.setParameters(parameters);
             } else {
                 ParserUtils.throwParseException(p, pos0, Messages.msg_14, parameters.length);
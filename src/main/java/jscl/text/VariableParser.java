@@ -4,25 +4,67 @@ import jscl.math.Generic;
 import jscl.math.Variable;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 public class VariableParser implements Parser<Variable> {
 
     public static final Parser<Variable> parser = new VariableParser();
 
-    private final static List<Parser<? extends Variable>> parsers = Arrays.asList(
-            OperatorParser.parser,
-            FunctionParser.parser,
-            ConstantParser.parser);
-
-    private final static MultiTryParser<Variable> internalParser = new MultiTryParser<Variable>(new ArrayList<Parser<? extends Variable>>(parsers));
-
     private VariableParser() {
     }
 
+    private static boolean isNext(@Nonnull String expression, int position, char c) {
+        return position < expression.length() && expression.charAt(position) == c;
+    }
+
     public Variable parse(@Nonnull Parameters p, Generic previousSumElement) throws ParseException {
-        return internalParser.parse(p, previousSumElement);
+        // the alternative is chosen by the name and by what follows it, the exception of the chosen alternative is the
+        // error. Constant is the alternative if nothing else can follow the name
+        final String expression = p.expression;
+        final int start = ParserUtils.skipWhitespaces(expression, p.position.intValue());
+        final int end = Identifier.end(expression, start);
+        if (end == start) {
+            return ConstantParser.parser.parse(p, previousSumElement);
+        }
+
+        final String name = expression.substring(start, end);
+        final boolean parametersNext = isNext(expression, ParserUtils.skipWhitespaces(expression, end), '(');
+        if (parametersNext && OperatorParser.valid(name)) {
+            return OperatorParser.parser.parse(p, previousSumElement);
+        }
+        if (parametersNext && UsualFunctionParser.valid(name)) {
+            return UsualFunctionParser.parser.parse(p, previousSumElement);
+        }
+
+        // implicit function and root are followed by parameters after subscripts (and derivation for the former)
+        final int nameEnd = CompoundIdentifier.end(expression, start);
+        int position = ParserUtils.skipWhitespaces(expression, nameEnd);
+        int subscripts = 0;
+        while (isNext(expression, position, '[')) {
+            position = ParserUtils.skipBrackets(expression, position);
+            if (position < 0) {
+                return ConstantParser.parser.parse(p, previousSumElement);
+            }
+            position = ParserUtils.skipWhitespaces(expression, position);
+            subscripts++;
+        }
+        if (subscripts == 1 && nameEnd == end && name.equals("root") && isNext(expression, position, '(')) {
+            return RootParser.parser.parse(p, previousSumElement);
+        }
+        if (isNext(expression, position, '\'')) {
+            while (isNext(expression, position, '\'')) {
+                position++;
+            }
+            position = ParserUtils.skipWhitespaces(expression, position);
+        } else if (isNext(expression, position, '{')) {
+            position = ParserUtils.skipBrackets(expression, position);
+            if (position < 0) {
+                return ConstantParser.parser.parse(p, previousSumElement);
+            }
+            position = ParserUtils.skipWhitespaces(expression, position);
+        }
+        if (isNext(expression, position, '(')) {
+            return ImplicitFunctionParser.parser.parse(p, previousSumElement);
+        }
+        return ConstantParser.parser.parse(p, previousSumElement);
     }
 }
@@ -1,11 +1,15 @@
 package jscl.text;
 
 import jscl.math.Generic;
+import jscl.math.JsclInteger;
 import jscl.math.JsclVector;
+import jscl.math.NumberVector;
 import jscl.util.ArrayUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class VectorParser implements Parser<JsclVector> {
@@ -22,27 +26,90 @@ public class VectorParser implements Parser<JsclVector> {
 
         ParserUtils.tryToParse(p, pos0, '[');
 
-        final List<Generic> result = new ArrayList<Generic>();
-        try {
-            result.add(ExpressionParser.parser.parse(p, previousSumElement));
-        } catch (ParseException e) {
-            p.position.setValue(pos0);
-            throw e;
+        final NumberVector numbers = parseNumbers(p);
+        if (numbers != null && ParserUtils.lookahead(p) == ']') {
+            ParserUtils.tryToParse(p, pos0, ']');
+            return numbers;
         }
 
-        while (true) {
+        // parsing continues after the numbers at the start of the vector (if any)
+        final List<Generic> result = new ArrayList<Generic>();
+        if (numbers != null) {
+            result.addAll(Arrays.asList(numbers.elements()));
+        } else {
             try {
-                result.add(CommaAndExpression.parser.parse(p, previousSumElement));
+                result.add(ExpressionParser.parser.parse(p, previousSumElement));
             } catch (ParseException e) {
-                p.exceptionsPool.release(e);
-                break;
+                p.position.setValue(pos0);
+                throw e;
             }
         }
 
+        while (ParserUtils.lookahead(p) == ',') {
+            result.add(ParserUtils.parseWithRollback(CommaAndExpression.parser, pos0, previousSumElement, p));
+        }
+
         ParserUtils.skipWhitespaces(p);
 
         ParserUtils.tryToParse(p, pos0, ']');
 
         return new JsclVector(ArrayUtils.toArray(result, new Generic[result.size()]));
     }
+
+    /**
+     * Fast path for vectors of numbers (e.g. data sets): each number is scanned by {@link NumberParser} and converted to
+     * the same element {@link ExpressionParser} would produce, without going through the parsers of an expression.
+     *
+     * @return numbers from the start of the vector, the position is after the last of them; null if the first element
+     * is not a number, the position is not changed in this case
+     */
+    @Nullable
+    private static NumberVector parseNumbers(@Nonnull Parameters p) throws ParseException {
+        Generic[] elements = null;
+        double[] values = null;
+        int size = 0;
+        int end = p.position.intValue();
+        while (true) {
+            final int start = p.position.intValue();
+            if (size > 0) {
+                if (ParserUtils.lookahead(p) != ',') {
+                    break;
+                }
+                ParserUtils.tryToParse(p, start, ',');
+            }
+
+            final boolean minus = MinusParser.parser.parse(p, null);
+
+            if (values == null) {
+                elements = new Generic[8];
+                values = new double[8];
+            } else if (size == values.length) {
+                elements = Arrays.copyOf(elements, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            final char next = ParserUtils.lookahead(p);
+            Generic element = NumberParser.isNumberStart(p, next) ? NumberParser.parse(p, values, size) : null;
+            final char after = ParserUtils.lookahead(p);
+            if (element == null || (after != ',' && after != ']')) {
+                p.position.setValue(start);
+                break;
+            }
+
+            // see TermParser and ExpressionParser
+            element = JsclInteger.valueOf(1).multiply(element);
+            if (minus) {
+                element = element.negate();
+                values[size] = element instanceof JsclInteger ? 0d - values[size] : -values[size];
+            }
+            elements[size] = element;
+            size++;
+            end = p.position.intValue();
+        }
+
+        if (size == 0) {
+            return null;
+        }
+        p.position.setValue(end);
+        return new NumberVector(Arrays.copyOf(elements, size), Arrays.copyOf(values, size));
+    }
 }
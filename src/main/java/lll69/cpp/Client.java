@@ -1,10 +1,10 @@
 package lll69.cpp;
 
 import jscl.AngleUnit;
+import jscl.CalculationProfile;
 import jscl.JsclMathEngine;
 import jscl.NumeralBase;
 import jscl.math.Generic;
-import jscl.math.function.CustomFunction;
 import jscl.math.function.FunctionsRegistry;
 import jscl.text.ParseException;
 import org.solovyev.android.calculator.ToJsclTextProcessor;
@@ -16,8 +16,6 @@ import org.teavm.jso.JSObject;
 import org.teavm.jso.core.JSArray;
 import org.teavm.jso.core.JSString;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 @JSExportClasses({ParseException.class})
@@ -26,26 +24,29 @@ public class Client {
     private static Generic ZERO;
     private static Generic lastResult;
     private static Generic memory;
+    private static int startupTime;
 
     @JSExport
     public static void initJscl() throws ParseException {
+        final long start = System.currentTimeMillis();
         JsclMathEngine engine = JsclMathEngine.getInstance();
-        FunctionsRegistry functions = FunctionsRegistry.getInstance();
-        functions.addOrUpdate(new CustomFunction.Builder(true, "log", Arrays.asList("base", "x"),
-                "ln(x)/ln(base)").create());
-        functions.addOrUpdate(new CustomFunction.Builder(true, "√3", Collections.singletonList("x"),
-                "x^(1/3)").create());
-        functions.addOrUpdate(new CustomFunction.Builder(true, "√4", Collections.singletonList("x"),
-                "x^(1/4)").create());
-        functions.addOrUpdate(new CustomFunction.Builder(true, "√n", Arrays.asList("x", "n"), "x^(1/n)").create());
-        functions.addOrUpdate(new CustomFunction.Builder(true, "re", Collections.singletonList("x"),
-                "(x+conjugate(x))/2").create());
-        functions.addOrUpdate(new CustomFunction.Builder(true, "im", Collections.singletonList("x"),
-                "(x-conjugate(x))/(2*i)").create());
+        SystemFunctions.register(FunctionsRegistry.getInstance());
+        // expressions are evaluated as the user types them
+        engine.setIncrementalParsing(true);
+        engine.setMemoization(true);
         ZERO = engine.evaluateGeneric("0");
         ZERO.toString();
         memory = ZERO;
         Client.engine = engine;
+        startupTime = (int) (System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return time spent in {@link #initJscl()} in milliseconds
+     */
+    @JSExport
+    public static int getStartupTime() {
+        return startupTime;
     }
 
     @JSExport
@@ -125,7 +126,7 @@ public class Client {
     public static String evaluate(String expr) throws ParseException {
         lastResult = null;
         Generic generic = engine.evaluateGeneric(expr);
-        String result = generic.toString();
+        String result = engine.format(generic);
         lastResult = generic;
         return result;
     }
@@ -134,7 +135,7 @@ public class Client {
     public static String simplify(String expr) throws ParseException {
         lastResult = null;
         Generic generic = engine.simplifyGeneric(expr);
-        String result = generic.toString();
+        String result = engine.format(generic);
         lastResult = generic;
         return result;
     }
@@ -143,11 +144,55 @@ public class Client {
     public static String elementary(String expr) throws ParseException {
         lastResult = null;
         Generic generic = engine.elementaryGeneric(expr);
-        String result = generic.toString();
+        String result = engine.format(generic);
         lastResult = generic;
         return result;
     }
 
+    /**
+     * Evaluates every expression of <var>exprs</var> (as typed by the user, i.e. before {@link #processExpr(String)}).
+     * Unlike {@link #evaluate(String)} the last result is left untouched. Each item is a separate request for
+     * profiling, see {@link #getProfile()}.
+     *
+     * @return two parallel arrays: results (null for failed items) and errors (null for successful items)
+     */
+    @JSExport
+    public static JSArray<JSObject> evaluateBatch(JSArray<JSString> exprs) {
+        return batch(exprs, false);
+    }
+
+    /**
+     * Same as {@link #evaluateBatch(JSArray)} but simplifies the expressions.
+     */
+    @JSExport
+    public static JSArray<JSObject> simplifyBatch(JSArray<JSString> exprs) {
+        return batch(exprs, true);
+    }
+
+    private static JSArray<JSObject> batch(JSArray<JSString> exprs, boolean simplify) {
+        ToJsclTextProcessor processor = ToJsclTextProcessor.getInstance();
+        processor.setEngine(engine);
+        int length = exprs.getLength();
+        JSArray<JSString> results = new JSArray<>(length);
+        JSArray<JSObject> errors = new JSArray<>(length);
+        for (int i = 0; i < length; i++) {
+            try {
+                engine.startProfile();
+                String expr = processor.process(exprs.get(i).stringValue()).value;
+                Generic generic = simplify ? engine.simplifyGeneric(expr) : engine.evaluateGeneric(expr);
+                results.set(i, JSString.valueOf(engine.format(generic)));
+                errors.set(i, null);
+            } catch (Throwable th) {
+                results.set(i, null);
+                errors.set(i, JSExceptions.getJSException(th));
+            }
+        }
+        JSArray<JSObject> result = new JSArray<>(2);
+        result.set(0, results);
+        result.set(1, errors);
+        return result;
+    }
+
     @JSExport
     public static String getMemory() {
         return memory.toString();
@@ -188,8 +233,12 @@ public class Client {
         lastResult = ZERO;
     }
 
+    /**
+     * Starts a new request: if profiling is on, everything calculated until the next call is recorded in a new profile
+     */
     @JSExport
     public static String processExpr(String expr) {
+        engine.startProfile();
         ToJsclTextProcessor processor = ToJsclTextProcessor.getInstance();
         processor.setEngine(engine);
         return processor.process(expr).value;
@@ -204,4 +253,22 @@ public class Client {
     public static void setNumeralBase(String base) {
         engine.setNumeralBase(NumeralBase.valueOf(base));
     }
+
+    @JSExport
+    public static void setCalculationTimeout(int millis) {
+        engine.setTimeout(millis);
+    }
+
+    @JSExport
+    public static void setProfiling(boolean profiling) {
+        engine.setProfiling(profiling);
+    }
+
+    /**
+     * @return profile of the last request (see {@link #processExpr(String)}), null if profiling is off
+     */
+    @JSExport
+    public static CalculationProfile getProfile() {
+        return engine.getProfile();
+    }
 }
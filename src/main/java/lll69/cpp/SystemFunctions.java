@@ -0,0 +1,73 @@
+package lll69.cpp;
+
+import jscl.math.Expression;
+import jscl.math.Generic;
+import jscl.math.JsclInteger;
+import jscl.math.function.Constant;
+import jscl.math.function.CustomFunction;
+import jscl.math.function.Fraction;
+import jscl.math.function.Function;
+import jscl.math.function.FunctionsRegistry;
+import jscl.math.function.Inverse;
+import jscl.math.function.Pow;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Custom functions which are always available in the calculator.
+ * <p/>
+ * Bodies of the functions are built directly and are the same as {@link Expression#valueOf(String)} would return for
+ * the text given in the comments, so nothing has to be parsed on startup.
+ */
+final class SystemFunctions {
+
+    private SystemFunctions() {
+        throw new AssertionError();
+    }
+
+    static void register(@Nonnull FunctionsRegistry functions) {
+        final Expression x = constant("x");
+
+        // ln(x)/ln(base)
+        functions.addOrUpdate(new CustomFunction.Builder(true, "log", Arrays.asList("base", "x"),
+                new Fraction(function("ln", x), function("ln", constant("base"))).expressionValue()).create());
+        // x^(1/3)
+        functions.addOrUpdate(new CustomFunction.Builder(true, "√3", Collections.singletonList("x"),
+                root(x, JsclInteger.valueOf(3))).create());
+        // x^(1/4)
+        functions.addOrUpdate(new CustomFunction.Builder(true, "√4", Collections.singletonList("x"),
+                root(x, JsclInteger.valueOf(4))).create());
+        // x^(1/n)
+        functions.addOrUpdate(new CustomFunction.Builder(true, "√n", Arrays.asList("x", "n"),
+                root(x, constant("n"))).create());
+        // (x+conjugate(x))/2
+        functions.addOrUpdate(new CustomFunction.Builder(true, "re", Collections.singletonList("x"),
+                new Fraction(x.add(function("conjugate", x)), JsclInteger.valueOf(2)).expressionValue()).create());
+        // (x-conjugate(x))/(2*i)
+        functions.addOrUpdate(new CustomFunction.Builder(true, "im", Collections.singletonList("x"),
+                new Fraction(x.subtract(function("conjugate", x)), constant("i").multiply(JsclInteger.valueOf(2))).expressionValue()).create());
+    }
+
+    @Nonnull
+    private static Expression constant(@Nonnull String name) {
+        return Expression.valueOf(new Constant(name));
+    }
+
+    // functions are taken from the registry in the same way as the parser does it
+    @Nonnull
+    private static Expression function(@Nonnull String name, @Nonnull Generic... parameters) {
+        final Function function = FunctionsRegistry.getInstance().get(name);
+        if (function == null) {
+            throw new IllegalStateException("Function " + name + " is not registered");
+        }
+        function.setParameters(parameters);
+        return function.expressionValue();
+    }
+
+    @Nonnull
+    private static Expression root(@Nonnull Generic x, @Nonnull Generic n) {
+        return new Pow(x, new Inverse(n).expressionValue()).expressionValue();
+    }
+}
@@ -18,4 +18,10 @@ public abstract class Engine implements MathEngine {
     public VariablesRegistry getVariablesRegistry() {
         return variablesRegistry;
     }
+
+    /**
+     * @see JsclMathEngine#enter()
+     */
+    @Nonnull
+    public abstract JsclMathEngine.Scope enter();
 }
@@ -22,6 +22,7 @@
 
 package org.solovyev.android.calculator;
 
+import jscl.CalculationProfile;
 import jscl.JsclMathEngine;
 import org.solovyev.android.calculator.math.MathType;
 import org.solovyev.android.calculator.text.TextProcessor;
@@ -62,7 +63,10 @@ public class ToJsclTextProcessor implements TextProcessor<PreparedExpression, St
     }
 
     private static PreparedExpression processWithDepth(@Nonnull String s, int depth, @Nonnull List<IConstant> undefinedVars, @Nonnull Engine engine) throws ParseException {
-        return replaceVariables(processExpression(removeWhitespaces(s), engine).toString(), depth, undefinedVars, engine);
+        final String expression = removeWhitespaces(s);
+        final List<Tokenizer.Token> tokens = Tokenizer.tokenize(expression, engine);
+        final int[] offsets = new int[tokens.size()];
+        return replaceVariables(processExpression(expression, tokens, offsets, engine).toString(), tokens, offsets, depth, undefinedVars, engine);
     }
 
     private static String removeWhitespaces(String s) {
@@ -75,50 +79,45 @@ public class ToJsclTextProcessor implements TextProcessor<PreparedExpression, St
         return res.toString();
     }
 
+    /**
+     * @param offsets filled with indices of the tokens in the result
+     */
     @Nonnull
-    private static StringBuilder processExpression(@Nonnull String s, @Nonnull Engine engine) throws ParseException {
+    private static StringBuilder processExpression(@Nonnull String s, @Nonnull List<Tokenizer.Token> tokens, @Nonnull int[] offsets, @Nonnull Engine engine) throws ParseException {
         final StringBuilder result = new StringBuilder();
-        final MathType.Results results = new MathType.Results();
 
-        MathType.Result mathTypeResult = null;
-        MathType.Result mathTypeBefore = null;
+        Tokenizer.Token tokenBefore = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            final Tokenizer.Token token = tokens.get(i);
 
-        final LiteNumberBuilder nb = new LiteNumberBuilder(engine);
-        for (int i = 0; i < s.length(); i++) {
-            if (s.charAt(i) == ' ') continue;
-
-            results.release(mathTypeBefore);
-            mathTypeBefore = mathTypeResult == null ? null : mathTypeResult;
-            mathTypeResult = MathType.getType(s, i, nb.isHexMode(), engine);
-
-            nb.process(mathTypeResult);
-
-            if (mathTypeBefore != null) {
-
-                final MathType current = mathTypeResult.type;
-
-                if (current.isNeedMultiplicationSignBefore(mathTypeBefore.type)) {
+            if (tokenBefore != null) {
+                if (token.type.isNeedMultiplicationSignBefore(tokenBefore.type)) {
                     result.append("*");
                 }
-            }
 
-            if (mathTypeBefore != null &&
-                    (mathTypeBefore.type == MathType.function || mathTypeBefore.type == MathType.operator) &&
-                    App.find(MathType.groupSymbols, s, i) != null) {
-                final String functionName = mathTypeBefore.match;
-                final Function function = engine.getFunctionsRegistry().get(functionName);
-                if (function == null || function.getMinParameters() > 0) {
-                    throw new ParseException(i, s, new CalculatorMessage(CalculatorMessages.msg_005, MessageType.error, mathTypeBefore.match));
+                if ((tokenBefore.type == MathType.function || tokenBefore.type == MathType.operator) &&
+                        App.find(MathType.groupSymbols, s, token.start) != null) {
+                    final String functionName = tokenBefore.match;
+                    final Function function = engine.getFunctionsRegistry().get(functionName);
+                    if (function == null || function.getMinParameters() > 0) {
+                        throw new ParseException(token.start, s, new CalculatorMessage(CalculatorMessages.msg_005, MessageType.error, functionName));
+                    }
                 }
             }
 
-            i = mathTypeResult.processToJscl(result, i);
+            offsets[i] = result.length();
+            result.append(token.jscl);
+            tokenBefore = token;
         }
         return result;
     }
 
+    /**
+     * @param s       result of {@link #processExpression(String, List, int[], Engine)}
+     * @param offsets indices of the tokens in <var>s</var>
+     */
     @Nonnull
-    private static PreparedExpression replaceVariables(@Nonnull final String s, int depth, @Nonnull List<IConstant> undefinedVars, @Nonnull Engine engine) throws ParseException {
+    private static PreparedExpression replaceVariables(@Nonnull final String s, @Nonnull List<Tokenizer.Token> tokens, @Nonnull int[] offsets, int depth, @Nonnull List<IConstant> undefinedVars, @Nonnull Engine engine) throws ParseException {
         if (depth >= MAX_DEPTH) {
             throw new ParseException(s, new CalculatorMessage(CalculatorMessages.msg_006, MessageType.error));
         } else {
@@ -126,58 +125,78 @@ public class ToJsclTextProcessor implements TextProcessor<PreparedExpression, St
         }
 
         final StringBuilder result = new StringBuilder();
-        for (int i = 0; i < s.length(); i++) {
-            int offset = 0;
-            String functionName = App.find(MathType.function.getTokens(engine), s, i);
-            if (functionName == null) {
-                String operatorName = App.find(MathType.operator.getTokens(engine), s, i);
-                if (operatorName == null) {
-                    String varName = App.find(engine.getVariablesRegistry().getNames(), s, i);
-                    if (varName != null) {
-                        final IConstant var = engine.getVariablesRegistry().get(varName);
-                        if (var != null) {
-                            if (!var.isDefined()) {
-                                undefinedVars.add(var);
-                                result.append(varName);
-                                offset = varName.length();
-                            } else {
-                                final String value = var.getValue();
-                                if (value == null) throw new AssertionError();
-
-                                if (var.getDoubleValue() != null) {
-                                    //result.append(value);
-                                    // NOTE: append varName as JSCL engine will convert it to double if needed
-                                    result.append(varName);
-                                } else {
-                                    result.append("(").append(processWithDepth(value, depth, undefinedVars, engine)).append(")");
-                                }
-                                offset = varName.length();
-                            }
-                        }
-                    }
+        // index in s up to which the text is processed
+        int end = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            final int start = offsets[i];
+            if (start < end) {
+                // token is a part of a function name
+                continue;
+            }
+            // multiplication sign
+            result.append(s, end, start);
+
+            final Tokenizer.Token token = tokens.get(i);
+            end = start + token.jscl.length();
+            if (token.functionName != null && s.startsWith(token.functionName, start)) {
+                // function without brackets: its name is kept as is even if it contains names of variables
+                result.append(token.functionName);
+                end = start + token.functionName.length();
+            } else if (token.constant != null) {
+                appendVariable(result, token.constant, token.match, depth, undefinedVars, engine);
+            } else if (token.type == MathType.power_10 || (token.type == MathType.digit && Character.isLetter(token.match.charAt(0)))) {
+                // exponent sign and hexadecimal digits might start a name of a variable
+                final String varName = engine.getVariablesRegistry().getNamesTrie().find(s, start);
+                final IConstant var = varName != null ? engine.getVariablesRegistry().get(varName) : null;
+                if (var != null) {
+                    appendVariable(result, var, varName, depth, undefinedVars, engine);
+                    end = start + varName.length();
                 } else {
-                    result.append(operatorName);
-                    offset = operatorName.length();
+                    result.append(s, start, end);
                 }
             } else {
-                result.append(functionName);
-                offset = functionName.length();
+                result.append(s, start, end);
             }
+        }
+        result.append(s, end, s.length());
+
+        return new PreparedExpression(result.toString(), undefinedVars);
+    }
 
+    private static void appendVariable(@Nonnull StringBuilder result, @Nonnull IConstant var, @Nonnull String varName, int depth, @Nonnull List<IConstant> undefinedVars, @Nonnull Engine engine) throws ParseException {
+        if (!var.isDefined()) {
+            undefinedVars.add(var);
+            result.append(varName);
+        } else {
+            final String value = var.getValue();
+            if (value == null) throw new AssertionError();
 
-            if (offset == 0) {
-                result.append(s.charAt(i));
+            if (var.getDoubleValue() != null) {
+                //result.append(value);
+                // NOTE: append varName as JSCL engine will convert it to double if needed
+                result.append(varName);
             } else {
-                i += offset - 1;
+                result.append("(").append(processWithDepth(value, depth, undefinedVars, engine)).append(")");
             }
         }
-
-        return new PreparedExpression(result.toString(), undefinedVars);
     }
 
     @Override
     @Nonnull
     public PreparedExpression process(@Nonnull String s) throws ParseException {
-        return processWithDepth(s, 0, new ArrayList<IConstant>(), engine);
+        return process(s, engine);
+    }
+
+    @Nonnull
+    public PreparedExpression process(@Nonnull String s, @Nonnull Engine engine) throws ParseException {
+        final JsclMathEngine.Scope scope = engine.enter();
+        try {
+            final long start = CalculationProfile.start();
+            final PreparedExpression result = processWithDepth(s, 0, new ArrayList<IConstant>(), engine);
+            CalculationProfile.stop(CalculationProfile.Phase.preprocessing, start);
+            return result;
+        } finally {
+            scope.close();
+        }
     }
 }
@@ -0,0 +1,96 @@
+package org.solovyev.android.calculator;
+
+import jscl.math.function.IConstant;
+import org.solovyev.android.calculator.math.MathType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Splits an expression into typed tokens in one pass. {@link ToJsclTextProcessor} uses the tokens both to insert
+ * multiplication signs and to replace variables, so it doesn't lex the expression twice.
+ * <p/>
+ * The tokens are not passed to the parsers of jscl: they read the jscl text which {@link ToJsclTextProcessor}
+ * produces, i.e. the input with multiplication signs inserted and variables replaced by their values, and which is
+ * also the key of {@link jscl.text.ParseCache}. Text of a calculation is therefore scanned twice, once here and once
+ * by the parsers, but neither of them rescans it.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+        throw new AssertionError();
+    }
+
+    /**
+     * @param expression expression without whitespaces
+     * @return tokens in the order of their appearance in the expression
+     */
+    @Nonnull
+    public static List<Token> tokenize(@Nonnull String expression, @Nonnull Engine engine) throws ParseException {
+        final List<Token> result = new ArrayList<>();
+        final MathType.Result mathTypeResult = new MathType.Result();
+        final LiteNumberBuilder nb = new LiteNumberBuilder(engine);
+        final StringBuilder jscl = new StringBuilder();
+        for (int i = 0; i < expression.length(); i++) {
+            MathType.getType(expression, i, nb.isHexMode(), mathTypeResult, engine);
+            nb.process(mathTypeResult);
+
+            jscl.setLength(0);
+            final int last = mathTypeResult.processToJscl(jscl, i);
+            final MathType type = mathTypeResult.type;
+            // only variables are looked up: functions and operators would be copied by their registries for nothing
+            final IConstant constant = type == MathType.constant ? engine.getVariablesRegistry().get(mathTypeResult.match) : null;
+            result.add(new Token(type, expression.substring(i, last + 1), jscl.toString(), i, constant,
+                    mathTypeResult.functionName));
+            i = last;
+        }
+        return result;
+    }
+
+    public static final class Token {
+
+        @Nonnull
+        public final MathType type;
+
+        // characters of the expression which the token consists of
+        @Nonnull
+        public final String match;
+
+        // text of the token in jscl syntax, might be empty
+        @Nonnull
+        public final String jscl;
+
+        // index of the first character in the expression
+        public final int start;
+
+        // variable which the token names, null if the token is not a variable or the variable is not defined
+        @Nullable
+        public final IConstant constant;
+
+        // see MathType.Result#functionName
+        @Nullable
+        public final String functionName;
+
+        Token(@Nonnull MathType type,
+              @Nonnull String match,
+              @Nonnull String jscl,
+              int start,
+              @Nullable IConstant constant,
+              @Nullable String functionName) {
+            this.type = type;
+            this.match = match;
+            this.jscl = jscl;
+            this.start = start;
+            this.constant = constant;
+            this.functionName = functionName;
+        }
+
+        @Override
+        public String toString() {
+            return type + "{" + match + "}";
+        }
+    }
+}
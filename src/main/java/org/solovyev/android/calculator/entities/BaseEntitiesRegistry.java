@@ -29,6 +29,7 @@ import org.solovyev.android.calculator.json.Json;
 import org.solovyev.android.calculator.json.Jsonable;
 import org.solovyev.common.math.MathEntity;
 import org.solovyev.common.math.MathRegistry;
+import org.solovyev.common.text.Trie;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -165,6 +166,12 @@ public abstract class BaseEntitiesRegistry<T extends MathEntity> implements Enti
         return mathRegistry.getNames();
     }
 
+    @Nonnull
+    @Override
+    public Trie getNamesTrie() {
+        return mathRegistry.getNamesTrie();
+    }
+
     @Override
     public boolean contains(@Nonnull String name) {
         return mathRegistry.contains(name);
@@ -22,13 +22,12 @@
 
 package org.solovyev.android.calculator.math;
 
-import jscl.JsclMathEngine;
 import jscl.NumeralBase;
 import jscl.math.function.Constants;
 import org.solovyev.android.Check;
-import org.solovyev.android.calculator.App;
 import org.solovyev.android.calculator.Engine;
 import org.solovyev.android.calculator.ParseException;
+import org.solovyev.common.text.Trie;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -70,6 +69,12 @@ public enum MathType {
         public List<String> getTokens(@Nonnull Engine engine) {
             return engine.getPostfixFunctionsRegistry().getNames();
         }
+
+        @Nonnull
+        @Override
+        public Trie getTokensTrie(@Nonnull Engine engine) {
+            return engine.getPostfixFunctionsRegistry().getNamesTrie();
+        }
     },
 
     unary_operation(500, false, false, MathGroupType.operation, "−", "-", "=") {
@@ -150,6 +155,12 @@ public enum MathType {
             return engine.getFunctionsRegistry().getNames();
         }
 
+        @Nonnull
+        @Override
+        public Trie getTokensTrie(@Nonnull Engine engine) {
+            return engine.getFunctionsRegistry().getNamesTrie();
+        }
+
         @Nonnull
         @Override
         public List<String> getTokens() {
@@ -165,6 +176,12 @@ public enum MathType {
             return engine.getOperatorsRegistry().getNames();
         }
 
+        @Nonnull
+        @Override
+        public Trie getTokensTrie(@Nonnull Engine engine) {
+            return engine.getOperatorsRegistry().getNamesTrie();
+        }
+
         @Nonnull
         @Override
         public List<String> getTokens() {
@@ -180,6 +197,12 @@ public enum MathType {
             return engine.getVariablesRegistry().getNames();
         }
 
+        @Nonnull
+        @Override
+        public Trie getTokensTrie(@Nonnull Engine engine) {
+            return engine.getVariablesRegistry().getNamesTrie();
+        }
+
         @Nonnull
         @Override
         public List<String> getTokens() {
@@ -229,6 +252,9 @@ public enum MathType {
     private static List<MathType> mathTypesByPriority;
     @Nonnull
     protected final List<String> tokens;
+    // lazily built index of the tokens, they don't change after the initialization
+    @Nullable
+    private Trie tokensTrie;
     @Nonnull
     private final Integer priority;
     private final boolean needMultiplicationSignBefore;
@@ -278,10 +304,11 @@ public enum MathType {
         } else if (i == 0 && text.length() == 0) {
             return result.set(MathType.text, text);
         }
+        result.functionName = null;
         final List<MathType> mathTypes = getMathTypesByPriority();
         for (int j = 0; j < mathTypes.size(); j++) {
             final MathType mathType = mathTypes.get(j);
-            final String s = App.find(mathType.getTokens(engine), text, i);
+            final String s = mathType.getTokensTrie(engine).find(text, i);
             if (s == null) {
                 continue;
             }
@@ -298,12 +325,13 @@ public enum MathType {
                         // or its name should finish the expression
                         return result.set(function, s);
                     }
+                    result.functionName = s;
                     continue;
                 }
                 return result.set(mathType, s);
             }
 
-            if (hexMode || JsclMathEngine.getInstance().getNumeralBase() == NumeralBase.hex) {
+            if (hexMode || engine.getNumeralBase() == NumeralBase.hex) {
                 final Character ch = s.charAt(0);
                 if (NumeralBase.hex.getAcceptableCharacters().contains(ch)) {
                     return result.set(MathType.digit, s);
@@ -358,6 +386,17 @@ public enum MathType {
         return tokens;
     }
 
+    /**
+     * @return index of {@link #getTokens(Engine)} which finds the longest token at a position of a text
+     */
+    @Nonnull
+    public Trie getTokensTrie(@Nonnull Engine engine) {
+        if (tokensTrie == null) {
+            tokensTrie = new Trie(getTokens());
+        }
+        return tokensTrie;
+    }
+
     private boolean isNeedMultiplicationSignAfter() {
         return needMultiplicationSignAfter;
     }
@@ -413,6 +452,10 @@ public enum MathType {
         @Nonnull
         public String match;
 
+        // name of a function which starts at the same index but is not followed by an open group symbol
+        @Nullable
+        public String functionName;
+
         public Result(@Nonnull MathType type, @Nonnull String match) {
             this.type = type;
             this.match = match;
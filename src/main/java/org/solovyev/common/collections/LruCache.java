@@ -0,0 +1,70 @@
+package org.solovyev.common.collections;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe map of bounded size which evicts least recently used entries and counts hits and misses.
+ */
+public class LruCache<K, V> {
+
+    @GuardedBy("this")
+    @Nonnull
+    private final Map<K, V> map;
+
+    @GuardedBy("this")
+    private long hits;
+
+    @GuardedBy("this")
+    private long misses;
+
+    public LruCache(final int maxSize) {
+        this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Nullable
+    public synchronized V get(@Nonnull K key) {
+        final V result = map.get(key);
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    public synchronized void put(@Nonnull K key, @Nonnull V value) {
+        map.put(key, value);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int getSize() {
+        return map.size();
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LruCache{size=" + map.size() + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+}
@@ -24,10 +24,15 @@ package org.solovyev.common.math;
 
 import org.solovyev.common.collections.SortedList;
 import org.solovyev.common.text.Strings;
+import org.solovyev.common.text.Trie;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -44,6 +49,8 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
     @GuardedBy("this")
     @Nonnull
     private static volatile Integer counter = 0;
+    // incremented on every change of any registry, used to invalidate caches which depend on registered names
+    private static volatile int generation = 0;
     @GuardedBy("this")
     @Nonnull
     protected final SortedList<T> entities = SortedList.newInstance(new ArrayList<T>(30), MATH_ENTITY_COMPARATOR);
@@ -51,6 +58,12 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
     @Nullable
     private List<String> entityNames;
     @GuardedBy("this")
+    @Nullable
+    private Trie entityNamesTrie;
+    // entities by their names, replaced (not modified) after every change so it can be read without locking
+    @Nullable
+    private volatile Map<String, T> entitiesByName;
+    @GuardedBy("this")
     @Nonnull
     protected final SortedList<T> systemEntities = SortedList.newInstance(new ArrayList<T>(30), MATH_ENTITY_COMPARATOR);
     private volatile boolean initialized;
@@ -81,6 +94,17 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
         return result;
     }
 
+    /**
+     * @return number which changes every time an entity is added to, updated in or removed from any registry
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    private static synchronized void nextGeneration() {
+        generation++;
+    }
+
     @Nullable
     private static <E extends MathEntity> E removeByName(@Nonnull List<E> entities, @Nonnull String name) {
         for (int i = 0; i < entities.size(); i++) {
@@ -123,7 +147,46 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
 
             if (!contains(entity.getName(), this.entities)) {
                 addEntity(entity, this.entities);
-                this.entityNames = null;
+                onNamesChanged();
+                nextGeneration();
+            }
+        }
+    }
+
+    /**
+     * Same as calling {@link #add(MathEntity)} for each of the entities but sorts the lists only once
+     */
+    protected void addAll(@Nonnull List<? extends T> entities) {
+        synchronized (this) {
+            final Set<String> systemNames = new HashSet<>();
+            for (T entity : this.systemEntities) {
+                systemNames.add(entity.getName());
+            }
+            final Set<String> names = new HashSet<>();
+            for (T entity : this.entities) {
+                names.add(entity.getName());
+            }
+
+            final List<T> newSystemEntities = new ArrayList<>(entities.size());
+            final List<T> newEntities = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                if (entity.isSystem()) {
+                    if (!systemNames.add(entity.getName())) {
+                        throw new IllegalArgumentException("Trying to add two system entities with same name: " + entity.getName());
+                    }
+                    newSystemEntities.add(entity);
+                }
+                if (names.add(entity.getName())) {
+                    entity.setId(count());
+                    newEntities.add(entity);
+                }
+            }
+
+            this.systemEntities.addAll(newSystemEntities);
+            if (!newEntities.isEmpty()) {
+                this.entities.addAll(newEntities);
+                onNamesChanged();
+                nextGeneration();
             }
         }
     }
@@ -137,19 +200,21 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
 
     public T addOrUpdate(@Nonnull T entity) {
         synchronized (this) {
-            final T existingEntity = entity.isIdDefined() ? getById(entity.getId()) : get(entity.getName());
+            final T existingEntity = entity.isIdDefined() ? getById(entity.getId()) : get(entity.getName(), entities);
             if (existingEntity == null) {
                 addEntity(entity, entities);
-                this.entityNames = null;
+                onNamesChanged();
                 if (entity.isSystem()) {
                     systemEntities.add(entity);
                 }
+                nextGeneration();
                 return entity;
             } else {
                 existingEntity.copy(entity);
                 this.entities.sort();
-                this.entityNames = null;
+                onNamesChanged();
                 this.systemEntities.sort();
+                nextGeneration();
                 return existingEntity;
             }
         }
@@ -160,7 +225,8 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
             if (!entity.isSystem()) {
                 final T removed = removeByName(entities, entity.getName());
                 if (removed != null) {
-                    this.entityNames = null;
+                    onNamesChanged();
+                    nextGeneration();
                 }
             }
         }
@@ -183,13 +249,51 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
         }
     }
 
-    @Nullable
-    public T get(@Nonnull final String name) {
+    @Nonnull
+    public Trie getNamesTrie() {
         synchronized (this) {
-            return get(name, entities);
+            if (entityNamesTrie == null) {
+                entityNamesTrie = new Trie(getNames());
+            }
+            return entityNamesTrie;
         }
     }
 
+    private void onNamesChanged() {
+        assert Thread.holdsLock(this);
+
+        this.entityNames = null;
+        this.entityNamesTrie = null;
+        this.entitiesByName = null;
+    }
+
+    @Nonnull
+    private Map<String, T> getEntitiesByName() {
+        Map<String, T> result = entitiesByName;
+        if (result == null) {
+            synchronized (this) {
+                result = entitiesByName;
+                if (result == null) {
+                    result = new HashMap<>(2 * entities.size());
+                    for (T entity : entities) {
+                        final String name = entity.getName();
+                        // same as the linear search: the first entity with the name wins
+                        if (name != null && !result.containsKey(name)) {
+                            result.put(name, entity);
+                        }
+                    }
+                    entitiesByName = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    public T get(@Nonnull final String name) {
+        return getEntitiesByName().get(name);
+    }
+
     @Nullable
     private T get(@Nonnull String name, @Nonnull List<T> list) {
         for (int i = 0; i < list.size(); i++) {
@@ -213,9 +317,7 @@ public abstract class AbstractMathRegistry<T extends MathEntity> implements Math
     }
 
     public boolean contains(@Nonnull final String name) {
-        synchronized (this) {
-            return contains(name, this.entities);
-        }
+        return getEntitiesByName().containsKey(name);
     }
 
     private boolean contains(final String name, @Nonnull List<T> entities) {
@@ -22,6 +22,8 @@
 
 package org.solovyev.common.math;
 
+import org.solovyev.common.text.Trie;
+
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -42,6 +44,12 @@ public interface MathRegistry<T extends MathEntity> {
     @Nonnull
     List<String> getNames();
 
+    /**
+     * @return index of {@link #getNames()} which finds the longest name at a position of a text
+     */
+    @Nonnull
+    Trie getNamesTrie();
+
     boolean contains(@Nonnull final String name);
 
     @Nullable
@@ -0,0 +1,100 @@
+package org.solovyev.common.text;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Prefix tree of strings. Finds the longest of the strings which starts at a position of a text in time proportional
+ * to the length of the match, independently of the number of the strings.
+ */
+public final class Trie {
+
+    @Nonnull
+    private final Node root = new Node();
+
+    /**
+     * @param strings strings to be found, empty strings are ignored
+     */
+    public Trie(@Nonnull Collection<String> strings) {
+        for (String string : strings) {
+            add(string);
+        }
+    }
+
+    private void add(@Nonnull String string) {
+        if (string.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < string.length(); i++) {
+            node = node.getOrAddChild(string.charAt(i));
+        }
+        node.string = string;
+    }
+
+    /**
+     * @return the longest string which <var>text</var> contains at <var>position</var>, null if there is no such string
+     */
+    @Nullable
+    public String find(@Nonnull String text, int position) {
+        String result = null;
+        Node node = root;
+        for (int i = position; i < text.length(); i++) {
+            node = node.getChild(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.string != null) {
+                result = node.string;
+            }
+        }
+        return result;
+    }
+
+    private static final class Node {
+
+        private static final char[] NO_CHARACTERS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // sorted, children[i] is a child for characters[i]
+        @Nonnull
+        private char[] characters = NO_CHARACTERS;
+        @Nonnull
+        private Node[] children = NO_CHILDREN;
+        // string which ends in this node
+        @Nullable
+        private String string;
+
+        @Nullable
+        Node getChild(char c) {
+            final int i = Arrays.binarySearch(characters, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        @Nonnull
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(characters, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+
+            final char[] newCharacters = new char[characters.length + 1];
+            System.arraycopy(characters, 0, newCharacters, 0, i);
+            System.arraycopy(characters, i, newCharacters, i + 1, characters.length - i);
+            newCharacters[i] = c;
+
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+            newChildren[i] = new Node();
+
+            characters = newCharacters;
+            children = newChildren;
+            return newChildren[i];
+        }
+    }
+}
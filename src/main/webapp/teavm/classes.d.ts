@@ -1,6 +1,12 @@
 export interface JsclMathEngine {
 }
+export interface CalculationProfile {
+    getTime(phase: string): number;
+    getTotalTime(): number;
+    getCreatedGenerics(): number;
+}
 export function initJscl(): void;
+export function getStartupTime(): number;
 export function getMathEngine(): JsclMathEngine;
 export function isParseException(e: any): boolean;
 export function getErrorMessage(e: any): string;
@@ -11,9 +17,14 @@ export function peParams(pe: any): string[];
 export function evaluate(expr: string): string;
 export function simplify(expr: string): string;
 export function elementary(expr: string): string;
+export function evaluateBatch(exprs: string[]): [(string | null)[], any[]];
+export function simplifyBatch(exprs: string[]): [(string | null)[], any[]];
 export function processExpr(expr: string): string;
 export function setAngleUnits(unit: string): string;
 export function setNumeralBase(base: string): string;
+export function setCalculationTimeout(millis: number): void;
+export function setProfiling(profiling: boolean): void;
+export function getProfile(): CalculationProfile | null;
 export function getMemory(): string;
 export function setMemory(expr: string): string;
 export function addMemory(): string;
@@ -0,0 +1,43 @@
+package jscl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CalculationBudgetTest {
+
+    @Test
+    public void testShouldCancelCalculationAfterMaxSteps() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setMaxSteps(100);
+        try {
+            engine.simplify("(a+b+c+d)^30");
+            fail();
+        } catch (CalculationCancelledException e) {
+            // expected
+        }
+        assertEquals("4", engine.evaluate("2+2"));
+    }
+
+    @Test
+    public void testShouldCancelCalculationAfterTimeout() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setTimeout(1);
+        try {
+            engine.simplify("(a+b+c+d+e+f)^60");
+            fail();
+        } catch (CalculationCancelledException e) {
+            // expected
+        }
+        assertEquals("4", engine.evaluate("2+2"));
+    }
+
+    @Test
+    public void testShouldNotCancelCalculationWithinBudget() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setTimeout(10000);
+        engine.setMaxSteps(100000);
+        assertEquals("a^2+2*a*b+b^2", engine.simplify("(a+b)^2"));
+    }
+}
@@ -0,0 +1,42 @@
+package jscl;
+
+import jscl.math.Expression;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CalculationProfileTest {
+
+    @Test
+    public void testShouldRecordCalculationsOfProfilingEngine() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setProfiling(true);
+        // results are cached for all engines, expression must not be calculated by other tests
+        engine.simplify("(p+q)^3");
+
+        final CalculationProfile profile = engine.getProfile();
+        assertTrue(profile.getCreatedGenerics() > 0);
+        assertTrue(profile.getTotalTime() > 0);
+    }
+
+    @Test
+    public void testShouldNotRecordCalculationsOutsideOfEngine() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setProfiling(true);
+        engine.evaluate("2+2");
+        final double generics = engine.getProfile().getCreatedGenerics();
+
+        Expression.valueOf("(r+s)^3").expand();
+        new JsclMathEngine().simplify("(r+s)^4");
+        assertEquals(generics, engine.getProfile().getCreatedGenerics(), 0);
+    }
+
+    @Test
+    public void testShouldNotHaveProfileIfProfilingIsOff() throws Exception {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.simplify("(a+b)^3");
+        assertNull(engine.getProfile());
+    }
+}
@@ -0,0 +1,75 @@
+package jscl;
+
+import jscl.math.Generic;
+import jscl.math.JsclInteger;
+import jscl.math.function.Constant;
+import jscl.math.function.ExtendedConstant;
+import jscl.math.function.IConstant;
+import org.junit.Test;
+import org.solovyev.common.math.AbstractMathRegistry;
+import org.solovyev.common.math.MathRegistry;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ResultCacheTest {
+
+    @Test
+    public void testShouldReturnResultComputedWithSameSettings() throws Exception {
+        final ResultCache cache = new ResultCache();
+        final JsclMathEngine engine = new JsclMathEngine();
+        final Generic result = JsclInteger.valueOf(5);
+        cache.put(ResultCache.Operation.evaluate, "2+3", engine, AbstractMathRegistry.getGeneration(), result);
+
+        assertSame(result, cache.get(ResultCache.Operation.evaluate, "2+3", engine));
+        assertNull(cache.get(ResultCache.Operation.simplify, "2+3", engine));
+        assertNull(cache.get(ResultCache.Operation.evaluate, "3+2", engine));
+
+        engine.setAngleUnits(AngleUnit.rad);
+        assertNull(cache.get(ResultCache.Operation.evaluate, "2+3", engine));
+        engine.setAngleUnits(AngleUnit.deg);
+
+        engine.setNumeralBase(NumeralBase.hex);
+        assertNull(cache.get(ResultCache.Operation.evaluate, "2+3", engine));
+        engine.setNumeralBase(NumeralBase.dec);
+
+        engine.setPrecision(3);
+        assertNull(cache.get(ResultCache.Operation.evaluate, "2+3", engine));
+    }
+
+    @Test
+    public void testShouldNotReturnResultComputedWithOldGeneration() throws Exception {
+        final ResultCache cache = new ResultCache();
+        final JsclMathEngine engine = new JsclMathEngine();
+        cache.put(ResultCache.Operation.evaluate, "2+3", engine, AbstractMathRegistry.getGeneration() - 1, JsclInteger.valueOf(5));
+
+        assertNull(cache.get(ResultCache.Operation.evaluate, "2+3", engine));
+    }
+
+    @Test
+    public void testShouldEvaluateAgainAfterConstantIsChanged() throws Exception {
+        final JsclMathEngine engine = JsclMathEngine.getInstance();
+        final MathRegistry<IConstant> constants = engine.getConstantsRegistry();
+        final IConstant constant = constants.addOrUpdate(newConstant(2d));
+        try {
+            assertEquals("4", engine.evaluate("rct_c*2"));
+            assertEquals("4", engine.evaluate("rct_c*2"));
+
+            constants.addOrUpdate(newConstant(3d));
+            assertEquals("6", engine.evaluate("rct_c*2"));
+        } finally {
+            constants.remove(constant);
+        }
+    }
+
+    @Nonnull
+    private static IConstant newConstant(double value) {
+        // system constants can't be removed
+        final Constant constant = new Constant("rct_c");
+        constant.setSystem(false);
+        return new ExtendedConstant.Builder(constant, value).create();
+    }
+}
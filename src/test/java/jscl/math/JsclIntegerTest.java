@@ -0,0 +1,131 @@
+package jscl.math;
+
+import jscl.JsclMathEngine;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsclIntegerTest {
+
+    private static final long[] BOUNDARIES = {
+            0, 1, -1, 2, -2, 3, 1000, 1025, -129,
+            Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, Integer.MAX_VALUE + 2L,
+            Integer.MIN_VALUE, Integer.MIN_VALUE - 1L, Integer.MIN_VALUE - 2L,
+            1L << 32, -(1L << 32), (1L << 32) + 1,
+            // sqrt(2^63) is between these two
+            3037000499L, 3037000500L, -3037000499L, -3037000500L,
+            Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE, Long.MIN_VALUE + 1,
+            Long.MAX_VALUE / 2, Long.MIN_VALUE / 2, Long.MIN_VALUE / 2 - 1};
+
+    @Test
+    public void testShouldCreateIntegerOfLong() throws Exception {
+        final JsclInteger integer = JsclInteger.valueOf(1L << 32);
+
+        assertEquals("4294967296", integer.toString());
+        assertEquals(BigInteger.ONE.shiftLeft(32), integer.content());
+        assertEquals(new JsclInteger(BigInteger.ONE.shiftLeft(32)), integer);
+        assertEquals(BigInteger.ONE.shiftLeft(64), integer.multiply(integer).content());
+        assertEquals(JsclInteger.valueOf(Long.MAX_VALUE), new JsclInteger(BigInteger.valueOf(Long.MAX_VALUE)));
+        assertEquals(JsclInteger.valueOf(Long.MIN_VALUE), new JsclInteger(BigInteger.valueOf(Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void testShouldDetectOverflowsAsMathExact() throws Exception {
+        for (long a : BOUNDARIES) {
+            for (long b : BOUNDARIES) {
+                assertExact(a, b);
+                assertExact(-a, b);
+                assertExact(a, -b);
+            }
+        }
+
+        assertFalse(JsclInteger.isMultiplyExact(Long.MIN_VALUE, -1));
+        assertFalse(JsclInteger.isMultiplyExact(-1, Long.MIN_VALUE));
+        assertTrue(JsclInteger.isMultiplyExact(Long.MIN_VALUE, 1));
+        assertFalse(JsclInteger.isMultiplyExact(1L << 31, 1L << 32));
+        assertTrue(JsclInteger.isMultiplyExact(1L << 31, 1L << 31));
+        assertTrue(JsclInteger.isMultiplyExact(-(1L << 31), 1L << 32));
+        assertFalse(JsclInteger.isMultiplyExact((1L << 31) + 1, 1L << 32));
+        assertFalse(JsclInteger.isSubtractExact(0, Long.MIN_VALUE));
+        assertTrue(JsclInteger.isSubtractExact(-1, Long.MIN_VALUE));
+        assertFalse(JsclInteger.isAddExact(Long.MAX_VALUE, 1));
+        assertTrue(JsclInteger.isAddExact(Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testShouldCalculateAsBigInteger() throws Exception {
+        final Random random = new Random(22);
+        for (int i = 0; i < 20000; i++) {
+            final long a = random.nextBoolean() ? BOUNDARIES[random.nextInt(BOUNDARIES.length)] : random.nextLong() >> random.nextInt(64);
+            final long b = random.nextBoolean() ? BOUNDARIES[random.nextInt(BOUNDARIES.length)] : random.nextLong() >> random.nextInt(64);
+            assertCalculated(a, b);
+        }
+        for (long a : BOUNDARIES) {
+            for (long b : BOUNDARIES) {
+                assertCalculated(a, b);
+            }
+        }
+    }
+
+    @Test
+    public void testShouldCalculatePercentsAsBefore() throws Exception {
+        final JsclMathEngine engine = JsclMathEngine.getInstance();
+
+        assertEquals("55", engine.evaluate("50+10%"));
+        assertEquals("90", engine.evaluate("100-10%"));
+        assertEquals("10", engine.evaluate("200*5%"));
+        assertEquals("0.1", engine.evaluate("10%"));
+        assertEquals("-45", engine.evaluate("-50-10%"));
+        assertEquals("-14", engine.evaluate("7-300%"));
+        assertEquals("1.5", engine.evaluate("(1+2)*50%"));
+        assertEquals("0.514285714285714", engine.evaluate("3/7+20%"));
+        assertEquals("1030000000000", engine.evaluate("1000000000000+3%"));
+        assertEquals("9.315605757223324E18", engine.evaluate("9223372036854775807+1%"));
+    }
+
+    private static void assertExact(long a, long b) {
+        final String message = a + ", " + b;
+        assertEquals(message, fits(BigInteger.valueOf(a).add(BigInteger.valueOf(b))), JsclInteger.isAddExact(a, b));
+        assertEquals(message, fits(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b))), JsclInteger.isSubtractExact(a, b));
+        assertEquals(message, fits(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))), JsclInteger.isMultiplyExact(a, b));
+    }
+
+    private static boolean fits(BigInteger value) {
+        return value.bitLength() < Long.SIZE;
+    }
+
+    private static void assertCalculated(long a, long b) {
+        final String message = a + ", " + b;
+        final BigInteger x = BigInteger.valueOf(a);
+        final BigInteger y = BigInteger.valueOf(b);
+        final JsclInteger u = JsclInteger.valueOf(a);
+        final JsclInteger v = JsclInteger.valueOf(b);
+
+        assertEquals(message, new JsclInteger(x.add(y)), u.add(v));
+        assertEquals(message, new JsclInteger(x.subtract(y)), u.subtract(v));
+        assertEquals(message, new JsclInteger(x.multiply(y)), u.multiply(v));
+        assertEquals(message, new JsclInteger(x.negate()), u.negate());
+        assertEquals(message, new JsclInteger(x.gcd(y)), u.gcd(v));
+        assertEquals(message, x.compareTo(y), u.compareTo(v));
+        assertEquals(message, x.add(y), u.add(v).content());
+        if (b != 0) {
+            assertEquals(message, new JsclInteger(x.remainder(y)), u.remainder(v));
+            if (x.remainder(y).signum() == 0) {
+                assertEquals(message, new JsclInteger(x.divide(y)), u.divide(v));
+            } else {
+                try {
+                    u.divide(v);
+                    fail(message);
+                } catch (NotDivisibleException e) {
+                    // expected
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package jscl.math;
+
+import jscl.AngleUnit;
+import jscl.JsclMathEngine;
+import jscl.math.function.Constant;
+import jscl.math.function.ExtendedConstant;
+import jscl.math.function.IConstant;
+import jscl.math.operator.Rand;
+import org.junit.Test;
+import org.solovyev.common.math.MathRegistry;
+
+import javax.annotation.Nonnull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class MemoCacheTest {
+
+    @Test
+    public void testShouldReuseResultsOfSameExpression() throws Exception {
+        final JsclMathEngine engine = newEngine(AngleUnit.deg);
+        final Expression expression = Expression.valueOf("sin(30)+√(2)");
+
+        final Generic numeric = numeric(engine, expression);
+        final long hits = engine.getMemoCache().getHits();
+
+        assertSame(numeric, numeric(engine, expression));
+        assertEquals(hits + 1, engine.getMemoCache().getHits());
+    }
+
+    @Test
+    public void testShouldKeepResultsOfSharedExpressionPerEngine() throws Exception {
+        final JsclMathEngine degrees = newEngine(AngleUnit.deg);
+        final JsclMathEngine radians = newEngine(AngleUnit.rad);
+        // same tree calculated by both engines, as if it came from the parse cache
+        final Expression expression = Expression.valueOf("sin(30)*2");
+
+        assertEquals(1d, numeric(degrees, expression).doubleValue(), 1e-12);
+        assertEquals(2 * Math.sin(30), numeric(radians, expression).doubleValue(), 1e-12);
+        assertEquals(1d, numeric(degrees, expression).doubleValue(), 1e-12);
+    }
+
+    @Test
+    public void testShouldDropResultsAfterAngleUnitsChange() throws Exception {
+        final JsclMathEngine engine = newEngine(AngleUnit.deg);
+        final Expression expression = Expression.valueOf("cos(60)");
+
+        assertEquals(0.5d, numeric(engine, expression).doubleValue(), 1e-12);
+        engine.setAngleUnits(AngleUnit.rad);
+        assertEquals(Math.cos(60), numeric(engine, expression).doubleValue(), 1e-12);
+    }
+
+    @Test
+    public void testShouldDropResultsAfterConstantIsChanged() throws Exception {
+        final JsclMathEngine engine = newEngine(AngleUnit.deg);
+        final MathRegistry<IConstant> constants = engine.getConstantsRegistry();
+        final IConstant constant = constants.addOrUpdate(newConstant(2d));
+        try {
+            final Expression expression = Expression.valueOf("mct_c*3");
+            assertEquals(6d, numeric(engine, expression).doubleValue(), 0d);
+
+            constants.addOrUpdate(newConstant(5d));
+            assertEquals(15d, numeric(engine, expression).doubleValue(), 0d);
+        } finally {
+            constants.remove(constant);
+        }
+    }
+
+    @Test
+    public void testShouldNotMemoizeTimeDependentExpressions() throws Exception {
+        final JsclMathEngine engine = newEngine(AngleUnit.deg);
+        // rand is not registered, so it can't be parsed
+        final Expression expression = (Expression) new Rand().expressionValue().add(JsclInteger.ONE);
+
+        assertNull(memo(engine, expression));
+        assertNotSame(numeric(engine, expression), numeric(engine, expression));
+    }
+
+    @Test
+    public void testShouldNotMemoizeIfMemoizationIsOff() throws Exception {
+        final JsclMathEngine engine = newEngine(AngleUnit.deg);
+        engine.setMemoization(false);
+
+        assertNull(engine.getMemoCache());
+        assertNull(memo(engine, Expression.valueOf("2*mct_y")));
+    }
+
+    @Nonnull
+    private static JsclMathEngine newEngine(@Nonnull AngleUnit angleUnits) {
+        final JsclMathEngine engine = new JsclMathEngine();
+        engine.setAngleUnits(angleUnits);
+        engine.setMemoization(true);
+        return engine;
+    }
+
+    private static Generic numeric(@Nonnull JsclMathEngine engine, @Nonnull Expression expression) {
+        final JsclMathEngine.Scope scope = engine.enter();
+        try {
+            return expression.numeric();
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static Memo memo(@Nonnull JsclMathEngine engine, @Nonnull Expression expression) {
+        final MemoCache memos = engine.getMemoCache();
+        return memos == null ? null : memos.get(expression, engine.getAngleUnits());
+    }
+
+    @Nonnull
+    private static IConstant newConstant(double value) {
+        // system constants can't be removed
+        final Constant constant = new Constant("mct_c");
+        constant.setSystem(false);
+        return new ExtendedConstant.Builder(constant, value).create();
+    }
+}
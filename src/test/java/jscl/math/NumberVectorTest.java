@@ -0,0 +1,62 @@
+package jscl.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NumberVectorTest {
+
+    @Test
+    public void testShouldParseVectorOfNumbersIntoValues() throws Exception {
+        final Generic vector = Expression.valueOf("[1, -2, 2.5, -3e-2, 0x:FF, 12345678901234567890]").expand();
+
+        assertTrue(vector instanceof NumberVector);
+        assertArrayEquals(new double[]{1, -2, 2.5, -3e-2, 255, 12345678901234567890d}, ((NumberVector) vector).values(), 0d);
+    }
+
+    @Test
+    public void testShouldParseSameElementsAsExpressionParser() throws Exception {
+        final String[] vectors = {"[1, -2, 2.5]", "[ 1 ,  2.5e3 , -0 ]", "[-0.0, 0x:A]", "[12345678901234567890, -1]"};
+        for (String vector : vectors) {
+            final NumberVector numbers = (NumberVector) Expression.valueOf(vector).expand();
+            // the first element is not a number, so all of them are parsed by ExpressionParser
+            final JsclVector expressions = (JsclVector) Expression.valueOf(vector.replace("[", "[x, ")).expand();
+            assertFalse(expressions instanceof NumberVector);
+
+            final Generic[] expected = expressions.elements();
+            final Generic[] actual = numbers.elements();
+            assertEquals(vector, expected.length - 1, actual.length);
+            for (int i = 0; i < actual.length; i++) {
+                assertEquals(vector, expected[i + 1].toString(), actual[i].toString());
+                assertEquals(vector, expected[i + 1].numeric().doubleValue(), numbers.values()[i], 0d);
+            }
+        }
+    }
+
+    @Test
+    public void testShouldContinueParsingAfterNumbers() throws Exception {
+        final Generic vector = Expression.valueOf("[1, 2, x, 3]").expand();
+
+        assertFalse(vector instanceof NumberVector);
+        assertEquals("[1, 2, x, 3]", vector.toString());
+        assertEquals("[1, 2, 3+x, 4]", Expression.valueOf("[1, 2, x, 3]+[0, 0, 3, 1]").expand().toString());
+    }
+
+    @Test
+    public void testShouldParseMatrixRowsOfNumbers() throws Exception {
+        assertEquals("[[7,10],[15,22]]", Expression.valueOf("[[1, 2], [3, 4]]^2").expand().toString().replaceAll("\\s", ""));
+        assertEquals("{{2.5,4},{3,4}}", Expression.valueOf("[[1.5, 2], [3, 4]]+[[1, 2], [0, 0]]").numeric().toString().replaceAll("\\s", ""));
+    }
+
+    @Test
+    public void testShouldEvaluateNumericVectorFromValues() throws Exception {
+        final NumberVector numbers = (NumberVector) Expression.valueOf("[1, -2, 2.5, -0.0]").expand();
+        final JsclVector expressions = new JsclVector(numbers.elements());
+
+        assertEquals(new NumericWrapper(expressions).toString(), new NumericWrapper(numbers).toString());
+        assertEquals(Expression.valueOf("[x-x+1, -2, 2.5, -0.0]*2").numeric().toString(), Expression.valueOf("[1, -2, 2.5, -0.0]*2").numeric().toString());
+    }
+}
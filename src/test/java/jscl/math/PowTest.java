@@ -0,0 +1,95 @@
+package jscl.math;
+
+import jscl.math.numeric.Complex;
+import jscl.math.numeric.Numeric;
+import jscl.math.numeric.Real;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PowTest {
+
+    @Test
+    public void testShouldRaiseSumsAsRepeatedMultiplication() throws Exception {
+        final String[] sums = {
+                "x+y", "x+y+z", "a+b+c+d", "2*x-3*y+5", "x*y+z-1", "1000000*x+y", "9223372036854775807*x+3*y",
+                "sin(x)+√(2)", "x/2+y", "a*b+c*d+e",
+                // terms with common variables
+                "x+1", "x^2+x", "x*y+x+y", "x^2+2*x*y+y^2", "x+y+x*y^2", "(x+1)*(y+1)+x"};
+        for (String sum : sums) {
+            final Generic expression = Expression.valueOf(sum).expand();
+            for (int exponent = 0; exponent <= 9; exponent++) {
+                assertPow(sum + "^" + exponent, expression, exponent);
+            }
+        }
+        assertPow("(x+y+z)^30", Expression.valueOf("x+y+z").expand(), 30);
+    }
+
+    @Test
+    public void testShouldRaiseRandomSumsAsRepeatedMultiplication() throws Exception {
+        final Random random = new Random(24);
+        final String[] variables = {"x", "y", "z", "t"};
+        for (int i = 0; i < 100; i++) {
+            final StringBuilder sum = new StringBuilder();
+            final int terms = 2 + random.nextInt(3);
+            for (int j = 0; j < terms; j++) {
+                if (random.nextBoolean()) {
+                    sum.append('-');
+                } else if (j > 0) {
+                    sum.append('+');
+                }
+                sum.append(1 + random.nextInt(7));
+                for (int k = random.nextInt(3); k > 0; k--) {
+                    sum.append('*').append(variables[random.nextInt(variables.length)]).append('^').append(1 + random.nextInt(2));
+                }
+            }
+            assertPow(sum.toString(), Expression.valueOf(sum.toString()).expand(), 2 + random.nextInt(6));
+        }
+    }
+
+    @Test
+    public void testShouldRaiseNumbersAsRepeatedMultiplication() throws Exception {
+        for (int exponent = 0; exponent <= 40; exponent++) {
+            assertPow("2^" + exponent, JsclInteger.valueOf(2), exponent);
+            assertPow("-3037000500^" + exponent, JsclInteger.valueOf(-3037000500L), exponent);
+            assertPow("(2/3)^" + exponent, Expression.valueOf("2/3").expand(), exponent);
+        }
+    }
+
+    @Test
+    public void testShouldRaiseMatricesAsRepeatedMultiplication() throws Exception {
+        final String[] matrices = {"[[1, 2], [3, 4]]", "[[0, 1], [1, 1]]", "[[2, -1, 0], [1, 3, 5], [0, 0, 1]]", "[[x, 1], [0, y]]", "[[1, x], [x, 1]]"};
+        for (String matrix : matrices) {
+            final Generic generic = Expression.valueOf(matrix).expand();
+            for (int exponent = 1; exponent <= 12; exponent++) {
+                assertPow(matrix + "^" + exponent, generic, exponent);
+            }
+        }
+    }
+
+    @Test
+    public void testShouldRaiseNumericsAsRepeatedMultiplication() throws Exception {
+        final Numeric[] numerics = {Real.valueOf(1.1), Real.valueOf(-0.7), Complex.valueOf(0.6, 0.8), Complex.valueOf(1, -2)};
+        for (Numeric numeric : numerics) {
+            Numeric expected = Real.ONE;
+            for (int exponent = 0; exponent <= 30; exponent++) {
+                final Numeric actual = numeric.pow(exponent);
+                final double tolerance = 1e-12 * Math.max(1d, expected.abs().doubleValue());
+                assertEquals(numeric + "^" + exponent, 0d, expected.subtract(actual).abs().doubleValue(), tolerance);
+                expected = expected.multiply(numeric);
+            }
+        }
+    }
+
+    private static void assertPow(String message, Generic generic, int exponent) {
+        Generic expected = JsclInteger.valueOf(1);
+        for (int i = 0; i < exponent; i++) {
+            expected = expected.multiply(generic);
+        }
+        final Generic actual = generic.pow(exponent);
+        assertEquals(message, expected.toString(), actual.toString());
+        assertEquals(message, expected, actual);
+    }
+}
@@ -0,0 +1,124 @@
+package jscl.math;
+
+import jscl.text.ParseException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SumBuilderTest {
+
+    @Test
+    public void testShouldReturnZeroForNoElements() throws Exception {
+        assertEquals(JsclInteger.ZERO, new SumBuilder().build());
+    }
+
+    @Test
+    public void testShouldSumIntegersToInteger() throws Exception {
+        final Generic sum = new SumBuilder(JsclInteger.valueOf(2)).add(JsclInteger.valueOf(3)).add(JsclInteger.valueOf(-7)).build();
+
+        assertTrue(sum instanceof JsclInteger);
+        assertEquals(JsclInteger.valueOf(-2), sum);
+    }
+
+    @Test
+    public void testShouldSumAsSequentialAdd() throws Exception {
+        final Random random = new Random(19);
+        for (int i = 0; i < 200; i++) {
+            final List<Generic> elements = new ArrayList<Generic>();
+            final int size = random.nextInt(100);
+            for (int j = 0; j < size; j++) {
+                elements.add(randomElement(random));
+            }
+            assertSum(elements);
+        }
+    }
+
+    @Test
+    public void testShouldSumElementsWhichCancelOut() throws Exception {
+        final List<Generic> elements = new ArrayList<Generic>();
+        for (int i = 0; i < 50; i++) {
+            elements.add(Expression.valueOf("x^" + i + "*y+" + i));
+        }
+        for (int i = 0; i < 50; i++) {
+            elements.add(Expression.valueOf("-x^" + i + "*y-" + i));
+        }
+        assertSum(elements);
+        assertEquals(JsclInteger.ZERO, sum(JsclInteger.ZERO, elements));
+    }
+
+    @Test
+    public void testShouldAddOtherElementsInOrder() throws Exception {
+        final List<Generic> elements = new ArrayList<Generic>();
+        elements.add(Expression.valueOf("x"));
+        elements.add(JsclInteger.valueOf(2));
+        elements.add(Expression.valueOf("[1, 2]").expand());
+        elements.add(Expression.valueOf("[x, 3]").expand());
+        elements.add(Expression.valueOf("1.5").numeric());
+        elements.add(Expression.valueOf("y"));
+        assertSum(elements);
+
+        elements.clear();
+        elements.add(Expression.valueOf("2.5").numeric());
+        elements.add(JsclInteger.valueOf(2));
+        elements.add(Expression.valueOf("3.5").numeric());
+        assertSum(elements);
+    }
+
+    @Test
+    public void testShouldSumManyTerms() throws Exception {
+        final List<Generic> elements = new ArrayList<Generic>();
+        for (int i = 0; i < 10000; i++) {
+            elements.add(Expression.valueOf(i + "*x^" + i));
+        }
+        assertEquals(10000, ((Expression) sum(JsclInteger.ONE, elements)).size());
+        assertSum(elements.subList(0, 2000));
+    }
+
+    private static void assertSum(List<Generic> elements) {
+        final Generic initial = elements.isEmpty() ? JsclInteger.ZERO : elements.get(0);
+        final List<Generic> rest = elements.isEmpty() ? elements : elements.subList(1, elements.size());
+
+        Generic expected = initial;
+        for (Generic element : rest) {
+            expected = expected.add(element);
+        }
+        final Generic actual = sum(initial, rest);
+        assertEquals(elements.toString(), expected.getClass(), actual.getClass());
+        assertEquals(elements.toString(), expected.toString(), actual.toString());
+        assertEquals(elements.toString(), expected, actual);
+    }
+
+    private static Generic sum(Generic initial, List<Generic> elements) {
+        final SumBuilder builder = new SumBuilder(initial);
+        for (Generic element : elements) {
+            builder.add(element);
+        }
+        return builder.build();
+    }
+
+    private static Generic randomElement(Random random) throws ParseException {
+        if (random.nextInt(4) == 0) {
+            return JsclInteger.valueOf(random.nextInt(21) - 10);
+        }
+        final StringBuilder result = new StringBuilder();
+        final int terms = 1 + random.nextInt(random.nextInt(3) == 0 ? 30 : 3);
+        final String[] variables = {"x", "y", "z", "sin(x)", "√(2)"};
+        for (int i = 0; i < terms; i++) {
+            if (random.nextBoolean()) {
+                result.append('-');
+            } else if (i > 0) {
+                result.append('+');
+            }
+            result.append(1 + random.nextInt(5));
+            for (int j = random.nextInt(3); j > 0; j--) {
+                result.append('*').append(variables[random.nextInt(variables.length)]).append('^').append(1 + random.nextInt(3));
+            }
+        }
+        return Expression.valueOf(result.toString()).expand();
+    }
+}
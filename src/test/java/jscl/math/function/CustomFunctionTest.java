@@ -0,0 +1,103 @@
+package jscl.math.function;
+
+import jscl.JsclMathEngine;
+import jscl.math.Generic;
+import jscl.math.JsclInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.solovyev.common.math.MathRegistry;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CustomFunctionTest {
+
+    @Nonnull
+    private final JsclMathEngine engine = JsclMathEngine.getInstance();
+    @Nonnull
+    private final List<Function> functions = new ArrayList<Function>();
+
+    @After
+    public void tearDown() throws Exception {
+        final MathRegistry<Function> registry = engine.getFunctionsRegistry();
+        for (Function function : functions) {
+            registry.remove(function);
+        }
+    }
+
+    @Test
+    public void testShouldSubstituteAllParametersAtOnce() throws Exception {
+        define("cft_g", "x+2*y", "x", "y");
+
+        assertEquals("2*x+y", engine.simplify("cft_g(y, x)"));
+        assertEquals("x+2*y", engine.simplify("cft_g(x, y)"));
+        assertEquals("3*x", engine.simplify("cft_g(x, x)"));
+        assertEquals("7", engine.simplify("cft_g(cft_g(1, 1), 2)"));
+    }
+
+    @Test
+    public void testShouldNotCaptureArgumentsInSums() throws Exception {
+        define("cft_h", "Σ(x*n, n, 1, 3)", "x");
+        define("cft_s", "Σ(x*n, n, 1, m)", "x");
+
+        assertEquals("6*n", engine.simplify("cft_h(n)"));
+        assertEquals("6*m", engine.simplify("cft_h(m)"));
+        assertEquals("12", engine.simplify("cft_h(2)"));
+        assertEquals("Σ(n*n', n', 1, m)", engine.simplify("cft_s(n)"));
+    }
+
+    @Test
+    public void testShouldNotCaptureArgumentsInProducts() throws Exception {
+        define("cft_p", "∏(x+n, n, 1, 2)", "x");
+
+        assertEquals("2+3*n+n^2", engine.simplify("cft_p(n)"));
+        assertEquals("20", engine.simplify("cft_p(3)"));
+    }
+
+    @Test
+    public void testShouldNotCaptureArgumentsInDerivatives() throws Exception {
+        define("cft_k", "∂(x^3*y, y)", "x");
+        define("cft_d", "∂(y^2, y)", "y");
+
+        assertEquals("y^3", engine.simplify("cft_k(y)"));
+        assertEquals("8", engine.simplify("cft_k(2)"));
+        assertEquals("2*y", engine.simplify("cft_d(y)"));
+        assertEquals("6", engine.simplify("cft_d(3)"));
+    }
+
+    @Test
+    public void testShouldNotCaptureArgumentsInIntegrals() throws Exception {
+        define("cft_q", "∫(x*t, t)", "x");
+        define("cft_r", "∫(t^2, t)", "t");
+
+        assertEquals("t^3/2", engine.simplify("cft_q(t)"));
+        assertEquals("t^3/3", engine.simplify("cft_r(t)"));
+        assertEquals("9", engine.simplify("cft_r(3)"));
+    }
+
+    @Test
+    public void testShouldUseNewParametersAfterRedefinition() throws Exception {
+        define("cft_f", "x+1", "x");
+        assertEquals("3", engine.simplify("cft_f(2)"));
+
+        define("cft_f", "2*y", "y");
+        assertEquals("6", engine.simplify("cft_f(3)"));
+
+        final CustomFunction function = new CustomFunction.Builder("cft_c", Arrays.asList("x"), "x+1").create();
+        function.setParameters(new Generic[]{JsclInteger.valueOf(2)});
+        assertEquals(JsclInteger.valueOf(3), function.selfExpand().expand());
+
+        final CustomFunction redefined = new CustomFunction.Builder("cft_c", Arrays.asList("y"), "2*y").create();
+        redefined.setParameters(new Generic[]{JsclInteger.valueOf(2)});
+        function.copy(redefined);
+        assertEquals(JsclInteger.valueOf(4), function.selfExpand().expand());
+    }
+
+    private void define(@Nonnull String name, @Nonnull String content, @Nonnull String... parameters) {
+        functions.add(engine.getFunctionsRegistry().addOrUpdate(new CustomFunction.Builder(name, Arrays.asList(parameters), content).create()));
+    }
+}
@@ -0,0 +1,59 @@
+package jscl.math.operator.stat;
+
+import jscl.math.Expression;
+import jscl.math.Generic;
+import jscl.math.JsclVector;
+import jscl.math.NumberVector;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatFunctionsTest {
+
+    @Test
+    public void testShouldCalculateSameValuesFromNumbersAndExpressions() throws Exception {
+        final String[] vectors = {
+                "[1, 2]", "[1, 2, 3, 4, 5]", "[-1.5, 2, 0.25, 1e3, -7]", "[0.1, 0.2, 0.3]", "[3, -3]", "[-0.0, 0.0, -0.0]",
+                "[12345678901234567890, 1, -5]", randomVector(new Random(7), 1000)};
+        for (String vector : vectors) {
+            final NumberVector numbers = (NumberVector) Expression.valueOf(vector).expand();
+            final JsclVector expressions = new JsclVector(numbers.elements());
+
+            assertSame(vector, new Mean(expressions).numeric(), new Mean(numbers).numeric());
+            assertSame(vector, new Min(expressions).numeric(), new Min(numbers).numeric());
+            assertSame(vector, new Max(expressions).numeric(), new Max(numbers).numeric());
+            assertSame(vector, new MeanSquareDeviation(expressions).numeric(), new MeanSquareDeviation(numbers).numeric());
+            assertSame(vector, new StandardDeviation(expressions).numeric(), new StandardDeviation(numbers).numeric());
+        }
+    }
+
+    @Test
+    public void testShouldCalculateValuesOfShortVectors() throws Exception {
+        final NumberVector empty = new NumberVector(new Generic[0], new double[0]);
+        assertEquals("0", new Mean(empty).numeric().toString());
+        assertEquals("0", new StandardDeviation(empty).numeric().toString());
+
+        final NumberVector one = (NumberVector) Expression.valueOf("[2.5]").expand();
+        assertEquals("2.5", new Mean(one).numeric().toString());
+        assertEquals("2.5", new Min(one).numeric().toString());
+        assertEquals("2.5", new Max(one).numeric().toString());
+        assertEquals("0", new StandardDeviation(one).numeric().toString());
+    }
+
+    private static void assertSame(String message, Generic expected, Generic actual) {
+        assertEquals(message, expected.doubleValue(), actual.doubleValue(), Math.abs(expected.doubleValue()) * 1e-12);
+    }
+
+    private static String randomVector(Random random, int size) {
+        final StringBuilder result = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(random.nextBoolean() ? String.valueOf(random.nextInt(2000) - 1000) : String.valueOf(random.nextGaussian() * 100));
+        }
+        return result.append(']').toString();
+    }
+}
@@ -0,0 +1,96 @@
+package jscl.text;
+
+import jscl.math.Expression;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DecimalToDoubleTest {
+
+    @Test
+    public void testShouldConvertExactOperands() throws Exception {
+        assertConverted(0, 0);
+        assertConverted(0, 400);
+        assertConverted(1, 0);
+        assertConverted(1, 22);
+        assertConverted(1, -22);
+        assertConverted(123456789, -5);
+        assertConverted(1L << 53, 22);
+        assertConverted(1L << 53, -22);
+    }
+
+    @Test
+    public void testShouldRoundHalfwayCasesToEven() throws Exception {
+        // 2^53 + 1 and 2^53 + 3 lie exactly between two doubles
+        assertConverted((1L << 53) + 1, 0);
+        assertConverted((1L << 53) + 3, 0);
+        assertConverted((1L << 53) + 1, 1);
+        assertConverted(9007199254740993L, -23);
+        assertConverted(9007199254740993L, 23);
+        assertConverted(Long.MAX_VALUE, 0);
+        assertConverted(Long.MAX_VALUE, -4);
+    }
+
+    @Test
+    public void testShouldConvertNumbersNearLimits() throws Exception {
+        // largest double, halfway to the next power of two and beyond
+        assertConverted(17976931348623157L, 292);
+        assertConverted(17976931348623158L, 292);
+        assertConverted(17976931348623159L, 292);
+        assertConverted(1, 308);
+        assertConverted(1, 309);
+        // smallest normal and subnormal doubles, halfway below the smallest subnormal
+        assertConverted(22250738585072011L, -324);
+        assertConverted(22250738585072014L, -324);
+        assertConverted(49, -325);
+        assertConverted(24703282292062327L, -340);
+        assertConverted(24703282292062328L, -340);
+        assertConverted(1, -342);
+        assertConverted(1, -343);
+        assertConverted(Long.MAX_VALUE, -342);
+    }
+
+    @Test
+    public void testShouldConvertRandomNumbersAsParseDouble() throws Exception {
+        final Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            final long significand = random.nextLong() >>> 1 + random.nextInt(63);
+            final int exponent = random.nextInt(680) - 360;
+            assertConverted(significand, exponent);
+        }
+    }
+
+    @Test
+    public void testShouldParseLiteralsAsParseDouble() throws Exception {
+        final String[] literals = {
+                "0.1", "0.2", "0.3", "1.5E-3", "2.5e3", "3.14159", "123.456e-7", "1.7976931348623157E308",
+                "4.9E-324", "2.2250738585072011e-308", "9007199254740993.0",
+                // more digits than fit into the significand
+                "0.12345678901234567890123456789", "12345678901234567890.5",
+                "9007199254740992.99999999999999999999", "9007199254740993.00000000000000000001",
+                "1.00000000000000011102230246251565404236316680908203125",
+                "1.00000000000000011102230246251565404236316680908203124",
+                "1.00000000000000011102230246251565404236316680908203126"};
+        for (String literal : literals) {
+            assertEquals(literal, Double.parseDouble(literal), Expression.valueOf(literal).numeric().doubleValue(), 0d);
+        }
+    }
+
+    @Test
+    public void testShouldParseIntegersInAllNumeralBases() throws Exception {
+        assertEquals("255", Expression.valueOf("0x:FF").toString());
+        assertEquals("255", Expression.valueOf("0o:377").toString());
+        assertEquals("255", Expression.valueOf("0b:11111111").toString());
+        assertEquals(Expression.valueOf("18446744073709551615"), Expression.valueOf("0x:FFFFFFFFFFFFFFFF"));
+        assertEquals("9223372036854775807", Expression.valueOf("0x:7FFFFFFFFFFFFFFF").toString());
+    }
+
+    private static void assertConverted(long significand, int exponent) {
+        final String text = significand + "e" + exponent;
+        final double expected = Double.parseDouble(text);
+        final double actual = DecimalToDouble.toDouble(significand, exponent);
+        assertEquals(text, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+}
@@ -0,0 +1,68 @@
+package jscl.text;
+
+import jscl.JsclMathEngine;
+import jscl.NumeralBase;
+import jscl.math.Expression;
+import jscl.math.JsclInteger;
+import jscl.math.function.CustomFunction;
+import jscl.math.function.Function;
+import org.junit.Test;
+import org.solovyev.common.math.AbstractMathRegistry;
+import org.solovyev.common.math.MathRegistry;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParseCacheTest {
+
+    @Test
+    public void testShouldReturnExpressionParsedWithSameKey() throws Exception {
+        final ParseCache cache = new ParseCache(10);
+        final Expression expression = Expression.valueOf("2+3");
+        cache.put("2+3", NumeralBase.dec, AbstractMathRegistry.getGeneration(), expression);
+
+        assertSame(expression, cache.get("2+3", NumeralBase.dec));
+        assertNull(cache.get("2+3", NumeralBase.hex));
+        assertNull(cache.get("3+2", NumeralBase.dec));
+    }
+
+    @Test
+    public void testShouldNotReturnExpressionParsedBeforeRegistryChange() throws Exception {
+        final ParseCache cache = new ParseCache(10);
+        final Expression expression = Expression.valueOf("2+3");
+        cache.put("2+3", NumeralBase.dec, AbstractMathRegistry.getGeneration(), expression);
+
+        final MathRegistry<Function> functions = JsclMathEngine.getInstance().getFunctionsRegistry();
+        final Function function = functions.addOrUpdate(new CustomFunction.Builder("pct_f", Collections.singletonList("x"), "x+1").create());
+        try {
+            assertNull(cache.get("2+3", NumeralBase.dec));
+        } finally {
+            functions.remove(function);
+        }
+    }
+
+    @Test
+    public void testShouldParseAgainAfterFunctionIsChanged() throws Exception {
+        final JsclMathEngine engine = JsclMathEngine.getInstance();
+        // registries are filled on first use, which is a change too
+        engine.getOperatorsRegistry();
+        engine.getPostfixFunctionsRegistry();
+        engine.getConstantsRegistry();
+        final MathRegistry<Function> functions = engine.getFunctionsRegistry();
+        final Function function = functions.addOrUpdate(new CustomFunction.Builder("pct_g", Collections.singletonList("x"), "x+1").create());
+        try {
+            assertEquals(JsclInteger.valueOf(4), Expression.valueOf("pct_g(3)").expand());
+            assertNotNull(ParseCache.getInstance().get("pct_g(3)", NumeralBase.dec));
+
+            functions.addOrUpdate(new CustomFunction.Builder("pct_g", Collections.singletonList("x"), "x+2").create());
+            assertNull(ParseCache.getInstance().get("pct_g(3)", NumeralBase.dec));
+            assertEquals(JsclInteger.valueOf(5), Expression.valueOf("pct_g(3)").expand());
+        } finally {
+            functions.remove(function);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package jscl.text;
+
+import jscl.JsclMathEngine;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Valid expressions must be parsed without creating a single {@link ParseException}
+ */
+public class ParserExceptionsTest {
+
+    private static final String CORPUS = "benchmarks/src/main/resources/corpus.txt";
+
+    @Test
+    public void testShouldParseCorpusWithoutExceptions() throws Exception {
+        final List<String> expressions = readCorpus();
+        assertFalse(expressions.isEmpty());
+        assertEquals(new ArrayList<String>(), parseAll(expressions));
+    }
+
+    @Test
+    public void testShouldParseUnusualExpressionsWithoutExceptions() throws Exception {
+        final List<String> expressions = Arrays.asList(
+                "x[1]+y'",
+                "x{2}*x''",
+                "sin",
+                "f(x)",
+                "f'(x)+f{1}(x)",
+                "f[1](x)",
+                "root[3](8)",
+                "root(8)",
+                "[[1, 2], 3]",
+                "[[1, 2]]+[[1], [2]]",
+                "2**3",
+                "1.5e0000000001",
+                "NaN+∞",
+                "0d:1e5",
+                "a.b+1");
+        assertEquals(new ArrayList<String>(), parseAll(expressions));
+    }
+
+    /**
+     * @return expressions which were parsed with exceptions
+     */
+    @Nonnull
+    private static List<String> parseAll(@Nonnull List<String> expressions) throws ParseException {
+        final List<String> result = new ArrayList<>();
+        for (String expression : expressions) {
+            final Parser.Parameters p = Parser.Parameters.get(expression, JsclMathEngine.getInstance());
+            final int obtained = p.exceptionsPool.getObtained();
+            ExpressionParser.parser.parse(p, null);
+            assertEquals(expression, expression.length(), ParserUtils.skipWhitespaces(expression, p.position.intValue()));
+            if (p.exceptionsPool.getObtained() != obtained) {
+                result.add(expression);
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static List<String> readCorpus() throws Exception {
+        final List<String> result = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(CORPUS), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#") && !line.startsWith("@")) {
+                    result.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return result;
+    }
+}
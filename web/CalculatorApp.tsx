@@ -12,7 +12,7 @@ import { AngleUnit, NumeralBase, ParseException } from "./CalculatorJscl";
 import { jsclMsgs, msgs, S } from "./CalculatorL10n";
 import { WorkerState, useWorker } from "./CalculatorWorker";
 import DragButton from "./DragButton";
-import { EvaluateOrSimplifyResult, EvaluateResultError, RequestType, SimplifyResultError, WORKER_VERSION, WorkerRequest, WorkerResult } from "./worker_types";
+import { CALCULATION_TIMEOUT, CalculateRequestType, EvaluateOrSimplifyResult, EvaluateResultError, RequestType, SimplifyResultError, WORKER_VERSION, WorkerRequest, WorkerResult } from "./worker_types";
 import { bgSx, InlineDiv, ScrollableFilledBox } from "./CalculatorStyled";
 import { CalculatorFunctionSelect, CalculatorVariableSelect } from "./CalculatorSelect";
 import CalculatorIntro from "./CalculatorIntro";
@@ -47,6 +47,9 @@ const invokeDelayed: (<TArgs extends any[]>(
     ...args: [void] extends TArgs ? Partial<TArgs> : TArgs
 ) => number) = setTimeout;
 const clearDelayed = clearTimeout;
+// the worker cancels calculations which run out of time itself (evaluation and simplification of a request are
+// limited separately), so it is re-created only if it is stuck in something the time limit doesn't cover
+const WORKER_REINIT_DELAY = 2 * CALCULATION_TIMEOUT + 1000;
 
 const copyText = (str: string) => {
     const D = document, element = D.createElement("input");
@@ -268,7 +271,7 @@ const Calculator = memo(({ landscape, fontSize, workerState, workerMessageRef, h
     const [workerRef, workerLoadError, reInitWorker, setWorkerError] = workerState;
     const [angleUnit, setAngleUnit] = useState<AngleUnit>(AngleUnit.rad);
     const [numeralBase, setNumeralBase] = useState<NumeralBase>(NumeralBase.dec);
-    const lastCalculateType = useRef<RequestType | null>(null);
+    const lastCalculateType = useRef<CalculateRequestType | null>(null);
     const calcWithHistory = useRef<CalcHistoryOption>(CalcHistoryOption.ADD_HISTORY);
     const historyPtr = useRef<number>(-1);
     const variableToEnter = useRef<string | null>(null);
@@ -289,7 +292,7 @@ const Calculator = memo(({ landscape, fontSize, workerState, workerMessageRef, h
         if (workerBusy.current) {
             pendingWorkerRequest.current = msg;
             if (workerDelayTimeout.current === null) {
-                workerDelayTimeout.current = invokeDelayed(delayedReInitWorker, 500);
+                workerDelayTimeout.current = invokeDelayed(delayedReInitWorker, WORKER_REINIT_DELAY);
             }
         } else {
             workerBusy.current = true;
@@ -450,7 +453,7 @@ const Calculator = memo(({ landscape, fontSize, workerState, workerMessageRef, h
         }
     }, []);
 
-    const startCalculation = useCallback((type: RequestType, historyOption?: CalcHistoryOption) => {
+    const startCalculation = useCallback((type: CalculateRequestType, historyOption?: CalcHistoryOption) => {
         const textArea = textAreaRef.current;
         const expr = textArea ? textArea.value : textAreaValueForRender.current;
         textAreaValueForRender.current = expr;
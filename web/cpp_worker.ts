@@ -1,5 +1,5 @@
-import { initJscl, getMathEngine, isParseException, getErrorMessage, pePosition, peExpression, peMessageCode, peParams, evaluate, simplify, elementary, processExpr, setAngleUnits, setNumeralBase, getMemory, addMemory, clearMemory, clearResult, setMemory, subMemory } from "./jscl";
-import { RequestType, WORKER_VERSION, WorkerRequest, WorkerResult } from "./worker_types";
+import { initJscl, getMathEngine, isParseException, getErrorMessage, pePosition, peExpression, peMessageCode, peParams, evaluate, simplify, elementary, evaluateBatch, simplifyBatch, processExpr, setAngleUnits, setNumeralBase, setCalculationTimeout, setProfiling, getProfile, getMemory, addMemory, clearMemory, clearResult, setMemory, subMemory } from "./jscl";
+import { CALCULATION_TIMEOUT, Profile, RequestType, WORKER_VERSION, WorkerRequest, WorkerResult } from "./worker_types";
 import { AngleUnit, NumeralBase, ParseException } from "./CalculatorJscl";
 
 interface MathEngine {
@@ -7,9 +7,13 @@ interface MathEngine {
     evaluate(expr: string): string;
     simplify(expr: string): string;
     elementary(expr: string): string;
+    evaluateBatch(exprs: string[]): BatchResult;
+    simplifyBatch(exprs: string[]): BatchResult;
     processExpr(expr: string): string;
     setAngleUnits(unit: AngleUnit): void;
     setNumeralBase(unit: NumeralBase): void;
+    setProfiling(profiling: boolean): void;
+    getProfile(): Profile | null;
     getMemory(): string;
     setMemory(expr: string): string;
     addMemory(): string;
@@ -18,6 +22,11 @@ interface MathEngine {
     clearResult(): void;
 }
 
+interface BatchResult {
+    results: (string | null)[];
+    errors: (ParseException | string | null)[];
+}
+
 const postWorkerMessage: ((msg: WorkerResult) => void) = postMessage;
 
 const wrapException = (from) => {
@@ -34,6 +43,14 @@ const wrapException = (from) => {
     }
 }
 
+const wrapBatch = ([results, errors]: [(string | null)[], any[]]) => {
+    const result: BatchResult = {
+        results: results,
+        errors: errors.map((error) => error == null ? null : wrapException(error)),
+    };
+    return result;
+}
+
 function getEngine(): MathEngine {
     const engine = getMathEngine();
     return {
@@ -59,6 +76,12 @@ function getEngine(): MathEngine {
                 throw wrapException(e);
             }
         },
+        evaluateBatch: (exprs: string[]) => {
+            return wrapBatch(evaluateBatch(exprs));
+        },
+        simplifyBatch: (exprs: string[]) => {
+            return wrapBatch(simplifyBatch(exprs));
+        },
         processExpr: (expr: string) => {
             try {
                 return processExpr(expr);
@@ -110,10 +133,33 @@ function getEngine(): MathEngine {
         setNumeralBase: (base: NumeralBase) => {
             setNumeralBase(base);
         },
+        setProfiling: (profiling: boolean) => {
+            setProfiling(profiling);
+        },
+        getProfile: () => {
+            const profile = getProfile();
+            if (profile == null) {
+                return null;
+            }
+            const result: Profile = {
+                preprocessing: profile.getTime("preprocessing"),
+                parsing: profile.getTime("parsing"),
+                expanding: profile.getTime("expanding"),
+                simplifying: profile.getTime("simplifying"),
+                numeric: profile.getTime("numeric"),
+                elementary: profile.getTime("elementary"),
+                formatting: profile.getTime("formatting"),
+                total: profile.getTotalTime(),
+                createdGenerics: profile.getCreatedGenerics(),
+            };
+            return result;
+        },
     }
 }
 
 initJscl();
+// runaway calculations are cancelled by the engine, so the worker stays usable
+setCalculationTimeout(CALCULATION_TIMEOUT);
 const mathEngine = getEngine();
 
 onmessage = (event: MessageEvent) => {
@@ -130,6 +176,7 @@ onmessage = (event: MessageEvent) => {
                     uid: request.uid,
                     success: true,
                     expr: request.expr,
+                    profile: mathEngine.getProfile(),
                     result: result,
                     resultType: RequestType.EVALUATE,
                 });
@@ -141,6 +188,7 @@ onmessage = (event: MessageEvent) => {
                         uid: request.uid,
                         success: true,
                         expr: request.expr,
+                        profile: mathEngine.getProfile(),
                         result: result,
                         resultType: RequestType.SIMPLIFY,
                         evaluateError: evaluateError,
@@ -151,6 +199,7 @@ onmessage = (event: MessageEvent) => {
                         uid: request.uid,
                         success: false,
                         expr: request.expr,
+                        profile: mathEngine.getProfile(),
                         result: null,
                         resultType: RequestType.SIMPLIFY,
                         evaluateError: evaluateError,
@@ -170,6 +219,7 @@ onmessage = (event: MessageEvent) => {
                     uid: request.uid,
                     success: true,
                     expr: request.expr,
+                    profile: mathEngine.getProfile(),
                     result: result,
                 });
             } catch (evaluateError) {
@@ -178,6 +228,7 @@ onmessage = (event: MessageEvent) => {
                     uid: request.uid,
                     success: false,
                     expr: request.expr,
+                    profile: mathEngine.getProfile(),
                     evaluateError: evaluateError,
                 });
             }
@@ -193,6 +244,7 @@ onmessage = (event: MessageEvent) => {
                     uid: request.uid,
                     success: true,
                     expr: request.expr,
+                    profile: mathEngine.getProfile(),
                     result: result,
                 });
             } catch (simplifyError) {
@@ -201,11 +253,38 @@ onmessage = (event: MessageEvent) => {
                     uid: request.uid,
                     success: false,
                     expr: request.expr,
+                    profile: mathEngine.getProfile(),
                     simplifyError: simplifyError,
                 });
             }
             break;
         }
+        case RequestType.EVALUATE_BATCH: {
+            mathEngine.setAngleUnits(request.angleUnit);
+            mathEngine.setNumeralBase(request.numeralBase);
+            const result = mathEngine.evaluateBatch(request.exprs);
+            postWorkerMessage({
+                type: RequestType.EVALUATE_BATCH,
+                uid: request.uid,
+                exprs: request.exprs,
+                results: result.results,
+                errors: result.errors,
+            });
+            break;
+        }
+        case RequestType.SIMPLIFY_BATCH: {
+            mathEngine.setAngleUnits(request.angleUnit);
+            mathEngine.setNumeralBase(request.numeralBase);
+            const result = mathEngine.simplifyBatch(request.exprs);
+            postWorkerMessage({
+                type: RequestType.SIMPLIFY_BATCH,
+                uid: request.uid,
+                exprs: request.exprs,
+                results: result.results,
+                errors: result.errors,
+            });
+            break;
+        }
         case RequestType.GET_MEMORY: {
             mathEngine.setAngleUnits(request.angleUnit);
             mathEngine.setNumeralBase(request.numeralBase);
@@ -322,6 +401,15 @@ onmessage = (event: MessageEvent) => {
             });
             break;
         }
+        case RequestType.SET_PROFILING: {
+            mathEngine.setProfiling(request.profiling);
+            postWorkerMessage({
+                type: RequestType.SET_PROFILING,
+                uid: request.uid,
+                success: true,
+            });
+            break;
+        }
     }
 };
 
@@ -1,10 +1,15 @@
 import { AngleUnit, NumeralBase, ParseException } from "./CalculatorJscl";
 
-export const WORKER_VERSION = "2";
+export const WORKER_VERSION = "4";
+
+// maximum duration of one calculation in the worker in milliseconds, longer calculations fail with an error
+export const CALCULATION_TIMEOUT = 1000;
 
 export const enum RequestType {
     EVALUATE = "evaluate",
     SIMPLIFY = "simplify",
+    EVALUATE_BATCH = "evalBatch",
+    SIMPLIFY_BATCH = "simpBatch",
     EVALUATE_OR_SIMPLIFY = "eval/simp",
     GET_MEMORY = "getMem",
     SET_MEMORY = "setMem",
@@ -12,6 +17,23 @@ export const enum RequestType {
     SUB_MEMORY = "subMem",
     CLEAR_MEMORY = "clrMem",
     CLEAR_RESULT = "clrRes",
+    SET_PROFILING = "setProf",
+}
+
+// requests which calculate the expression of the editor
+export type CalculateRequestType = RequestType.EVALUATE_OR_SIMPLIFY | RequestType.EVALUATE | RequestType.SIMPLIFY;
+
+// time of each phase of the last request in milliseconds, see SetProfilingRequest
+export type Profile = {
+    preprocessing: number,
+    parsing: number,
+    expanding: number,
+    simplifying: number,
+    numeric: number,
+    elementary: number,
+    formatting: number,
+    total: number,
+    createdGenerics: number,
 }
 
 export type InitResult = {
@@ -34,6 +56,7 @@ export type EvaluateOrSimplifyResultEvaluateSuccess = {
     expr: string,
     result: string,
     resultType: RequestType.EVALUATE,
+    profile: Profile | null,
 }
 
 export type EvaluateOrSimplifyResultSimplifySuccess = {
@@ -44,6 +67,7 @@ export type EvaluateOrSimplifyResultSimplifySuccess = {
     result: string,
     resultType: RequestType.SIMPLIFY,
     evaluateError: ParseException | string,
+    profile: Profile | null,
 }
 
 export type EvaluateOrSimplifyResultSimplifyError = {
@@ -55,6 +79,7 @@ export type EvaluateOrSimplifyResultSimplifyError = {
     resultType: RequestType.SIMPLIFY,
     evaluateError: ParseException | string,
     simplifyError: ParseException | string,
+    profile: Profile | null,
 }
 
 export type EvaluateOrSimplifyResult = EvaluateOrSimplifyResultEvaluateSuccess | EvaluateOrSimplifyResultSimplifySuccess | EvaluateOrSimplifyResultSimplifyError;
@@ -73,6 +98,7 @@ export type EvaluateResultSuccess = {
     success: true,
     expr: string,
     result: string,
+    profile: Profile | null,
 }
 
 export type EvaluateResultError = {
@@ -81,6 +107,7 @@ export type EvaluateResultError = {
     success: false,
     expr: string,
     evaluateError: ParseException | string,
+    profile: Profile | null,
 }
 
 export type EvaluateResult = EvaluateResultSuccess | EvaluateResultError;
@@ -99,6 +126,7 @@ export type SimplifyResultSuccess = {
     success: true,
     expr: string,
     result: string,
+    profile: Profile | null,
 }
 
 export type SimplifyResultError = {
@@ -107,10 +135,44 @@ export type SimplifyResultError = {
     success: false,
     expr: string,
     simplifyError: ParseException | string,
+    profile: Profile | null,
 }
 
 export type SimplifyResult = SimplifyResultSuccess | SimplifyResultError;
 
+export type EvaluateBatchRequest = {
+    type: RequestType.EVALUATE_BATCH,
+    uid: number,
+    exprs: string[],
+    angleUnit: AngleUnit,
+    numeralBase: NumeralBase,
+}
+
+// results and errors are parallel arrays: result is null if the expression failed, error is null if it succeeded
+export type EvaluateBatchResult = {
+    type: RequestType.EVALUATE_BATCH,
+    uid: number,
+    exprs: string[],
+    results: (string | null)[],
+    errors: (ParseException | string | null)[],
+}
+
+export type SimplifyBatchRequest = {
+    type: RequestType.SIMPLIFY_BATCH,
+    uid: number,
+    exprs: string[],
+    angleUnit: AngleUnit,
+    numeralBase: NumeralBase,
+}
+
+export type SimplifyBatchResult = {
+    type: RequestType.SIMPLIFY_BATCH,
+    uid: number,
+    exprs: string[],
+    results: (string | null)[],
+    errors: (ParseException | string | null)[],
+}
+
 export type GetMemoryRequest = {
     type: RequestType.GET_MEMORY,
     uid: number,
@@ -240,13 +302,30 @@ export type ClearResultResult = {
     success: true,
 }
 
+// turns profiling of the calculate requests on or off, profiles are returned with their results
+export type SetProfilingRequest = {
+    type: RequestType.SET_PROFILING,
+    uid: number,
+    profiling: boolean,
+}
+
+export type SetProfilingResult = {
+    type: RequestType.SET_PROFILING,
+    uid: number,
+    success: true,
+}
+
 export type WorkerRequest = EvaluateOrSimplifyRequest
     | EvaluateRequest | SimplifyRequest
+    | EvaluateBatchRequest | SimplifyBatchRequest
     | GetMemoryRequest | SetMemoryRequest
     | AddMemoryRequest | SubMemoryRequest
-    | ClearMemoryRequest | ClearResultRequest;
+    | ClearMemoryRequest | ClearResultRequest
+    | SetProfilingRequest;
 export type WorkerResult = InitResult | EvaluateOrSimplifyResult
     | EvaluateResult | SimplifyResult
+    | EvaluateBatchResult | SimplifyBatchResult
     | GetMemoryResult | SetMemoryResult
     | AddMemoryResult | SubMemoryResult
-    | ClearMemoryResult | ClearResultResult;
+    | ClearMemoryResult | ClearResultResult
+    | SetProfilingResult;